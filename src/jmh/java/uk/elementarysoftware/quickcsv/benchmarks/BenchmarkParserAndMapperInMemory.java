@@ -72,6 +72,13 @@ public class BenchmarkParserAndMapperInMemory {
         stream.forEach(c -> bh.consume(c));
     }
 
+    @Benchmark
+    public void benchmarkParallelParserZeroCopy(BenchmarkState state, Blackhole bh) {
+        CSVParser<City> parser = CSVParserBuilder.aParser(City.MAPPER).build();
+        Stream<City> stream = parser.parse(state.content);
+        stream.forEach(c -> bh.consume(c));
+    }
+
     @Benchmark
     public void benchmarkParallelParserWithHeader(BenchmarkState state, Blackhole bh) {
         CSVParser<City> parser = CSVParserBuilder
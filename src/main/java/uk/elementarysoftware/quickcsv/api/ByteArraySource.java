@@ -1,15 +1,24 @@
 package uk.elementarysoftware.quickcsv.api;
 
+import java.io.IOException;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
 /**
  * Abstract source of byte arrays to allow parsing of synchronous or asynchronous streams. 
  */
-public interface ByteArraySource {
+public interface ByteArraySource extends AutoCloseable {
 
     ByteArrayChunk getNext() throws Exception;
     
+    /**
+     * Called when parsing is cancelled or finished and resulting stream is closed. Source should stop reading 
+     * and release resources it owns. Chunks returned earlier are released by the parser.
+     */
+    @Override
+    default void close() throws IOException {
+    }
+    
     public abstract static class ReusableChunk {
 
         private final Runnable onFree;
@@ -0,0 +1,61 @@
+package uk.elementarysoftware.quickcsv.api;
+
+/**
+ * Pull based access to records of the source, in input order. Cursor is initially positioned before the first 
+ * record, {@link #next()} moves it to the next record, so that caller controls the pace of parsing. 
+ * That allows to traverse several sources in lock step, for example to merge sorted files.
+ * 
+ * Fields of the current record are parsed once cursor is moved and are valid until it is moved again. 
+ * Field objects are re-used, so nothing is allocated per record, except values returned as strings.
+ * Header, when parser reads it from the source, is skipped and fields are accessed by their index in the source.
+ * 
+ * Cursor should be closed to release buffers and the source.
+ */
+public interface CSVCursor extends AutoCloseable {
+    
+    /**
+     * Moves cursor to the next record.
+     * @return false if there are no more records
+     */
+    public boolean next();
+    
+    /**
+     * @return number of fields in the current record
+     */
+    public int fieldCount();
+    
+    /**
+     * Returns field of the current record. Field object is re-used by the next call.
+     * @param index - index of the field in the record, starting from 0
+     * @return object to access field content
+     * @throws IndexOutOfBoundsException if record has no such field
+     * @throws IllegalStateException if cursor is not positioned on a record
+     */
+    public Field field(int index);
+    
+    public default String getString(int index) {
+        return field(index).asString();
+    }
+    
+    public default int getInt(int index) {
+        return field(index).asInt();
+    }
+    
+    public default long getLong(int index) {
+        return field(index).asLong();
+    }
+    
+    public default double getDouble(int index) {
+        return field(index).asDouble();
+    }
+    
+    public default boolean isEmpty(int index) {
+        return field(index).isEmpty();
+    }
+    
+    /**
+     * Releases buffers that are still held and closes the source.
+     */
+    @Override
+    public void close();
+}
@@ -1,10 +1,22 @@
 package uk.elementarysoftware.quickcsv.api;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
 
 import uk.elementarysoftware.quickcsv.ioutils.IOUtils;
 
@@ -20,7 +32,321 @@ public interface CSVParser<T> {
         return parse(is).onClose(() -> IOUtils.closeQuietly(is));
     }
     
+    /**
+     * Parse file, implementations can map the file into memory. As length of the file is known upfront, 
+     * the file is then split into record aligned ranges that are read and parsed in parallel.
+     * 
+     * @param path - file to parse
+     * @return stream of parsed records, that should be closed to release the file
+     * @throws IOException if file can not be opened or mapped
+     */
+    public default Stream<T> parse(Path path) throws IOException {
+        return parse(path.toFile());
+    }
+    
+    /**
+     * Parse records that start within byte range of the file. Record that starts before the range and ends 
+     * within it is skipped, record that starts within the range and ends after it is parsed completely. 
+     * Consecutive ranges therefore produce every record exactly once. When parser reads header from the source, 
+     * the header is read from the start of the file even if range does not contain it. 
+     * When line breaks are allowed within quoted fields, the part of the file preceding range bounds is scanned 
+     * for quotes to find record starts. Parser keeps quote state of the last file parsed this way, 
+     * so consecutive ranges of the same file scan each part of it once.
+     * 
+     * Default implementation finds record starts the same way as {@link CSVSplitPlanner} and parses records 
+     * between them with {@link #parse(InputStream)}, so it does not scan for quotes, and parser that reads 
+     * header from the source should override it.
+     * 
+     * @param path - file to parse
+     * @param startOffset - first byte of the range
+     * @param endOffset - byte following the range
+     * @return stream of parsed records, that should be closed to release the file
+     * @throws IOException if file can not be opened or mapped
+     */
+    public default Stream<T> parse(Path path, long startOffset, long endOffset) throws IOException {
+        InputStream is = CSVSplitPlanner.openRange(path, startOffset, endOffset);
+        return parse(is).onClose(() -> IOUtils.closeQuietly(is));
+    }
+    
+    /**
+     * Parse records of the file from fromRow inclusive to toRow exclusive, where rows are numbered in order 
+     * of the resulting stream of {@link #parse(Path)}. Implementations can use the index to start parsing 
+     * close to the first record, default implementation skips preceding records.
+     * 
+     * @param path - file to parse
+     * @param index - index of the file, built by {@link RowIndex#build(Path, int)}
+     * @param fromRow - first row to parse
+     * @param toRow - row following the last row to parse
+     * @return stream of parsed records
+     * @throws IOException if file can not be opened or mapped
+     */
+    public default Stream<T> parse(Path path, RowIndex index, long fromRow, long toRow) throws IOException {
+        return parse(path).skip(fromRow).limit(toRow - fromRow);
+    }
+    
+    /**
+     * Parse several files into single stream, records are returned in order of the files. Implementations can
+     * spread chunks of all files over the pool, rather than parsing files one by one. When parser reads 
+     * header from the source, each file is expected to start with the header, that may differ between files.
+     * 
+     * @param paths - files to parse
+     * @return stream of parsed records of all files
+     * @throws IOException if size of the files can not be read
+     */
+    public default Stream<T> parse(List<Path> paths) throws IOException {
+        return paths.parallelStream().flatMap(path -> {
+            try {
+                return parse(path);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+    }
+    
+    /**
+     * Parse whole content of the file channel, regardless of its current position. Implementations can use 
+     * positional reads, so that record aligned ranges of the file are read and parsed in parallel.
+     * The channel is not closed by the parser.
+     * 
+     * @param channel - file channel to parse
+     * @return stream of parsed records
+     * @throws IOException if channel size or position can not be accessed
+     */
+    public default Stream<T> parse(FileChannel channel) throws IOException {
+        return parse(Channels.newInputStream(channel.position(0)));
+    }
+    
     public Stream<T> parse(InputStream is);
     
+    /**
+     * Parse content of the channel, starting from its current position. Channel should be in blocking mode
+     * and is not closed by the parser.
+     * 
+     * @param channel - channel to read, such as pipe or socket channel
+     * @return stream of parsed records
+     */
+    public default Stream<T> parse(ReadableByteChannel channel) {
+        return parse(Channels.newInputStream(channel));
+    }
+    
+    /**
+     * Parse gzip compressed input. Implementations can inflate blocks of BGZF compressed input in parallel, 
+     * other gzip inputs are inflated sequentially. Input stream is not closed by the parser.
+     * 
+     * @param is - gzip compressed input
+     * @return stream of parsed records
+     * @throws IOException if gzip header can not be read
+     */
+    public default Stream<T> parseGzip(InputStream is) throws IOException {
+        return parse(new GZIPInputStream(is));
+    }
+    
+    /**
+     * Parse in-memory content. Implementations can parse the array directly, without copying, splitting it 
+     * into balanced record aligned ranges that are parsed in parallel. Array should not be modified while parsing.
+     * 
+     * @param data - content to parse
+     * @return stream of parsed records
+     */
+    public default Stream<T> parse(byte[] data) {
+        return parse(data, 0, data.length);
+    }
+    
+    /**
+     * Parse in-memory content, see {@link #parse(byte[])}.
+     * 
+     * @param data - array containing content to parse
+     * @param offset - start of the content in the array
+     * @param length - length of the content
+     * @return stream of parsed records
+     */
+    public default Stream<T> parse(byte[] data, int offset, int length) {
+        return parse(new ByteArrayInputStream(data, offset, length));
+    }
+    
+    /**
+     * Parse content of the buffer between its position and limit, see {@link #parse(byte[])}. 
+     * Position of the buffer is not modified.
+     * 
+     * @param buffer - buffer containing content to parse
+     * @return stream of parsed records
+     */
+    public default Stream<T> parse(ByteBuffer buffer) {
+        if (buffer.hasArray()) {
+            return parse(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+        }
+        byte[] data = new byte[buffer.remaining()];
+        buffer.duplicate().get(data);
+        return parse(data);
+    }
+    
     public Stream<T> parse(ByteArraySource bas);
+    
+    /**
+     * Parse input into batches of records, one batch per parsed buffer. Batch is built by the thread that parsed 
+     * the buffer, so no per-record dispatch or merging is involved, which suits consumers that write records 
+     * in bulk, such as database inserts. Batches are returned in input order unless parser is unordered.
+     * Default implementation returns batches of single record.
+     * 
+     * @param is - input to parse
+     * @return stream of non-empty batches of parsed records
+     */
+    public default Stream<List<T>> parseBatches(InputStream is) {
+        return parse(is).map(Collections::singletonList);
+    }
+    
+    /**
+     * Parse file into batches of records, one batch per parsed range of the file, see {@link #parseBatches(InputStream)}.
+     * 
+     * @param path - file to parse
+     * @return stream of non-empty batches of parsed records, that should be closed to release the file
+     * @throws IOException if file can not be opened or mapped
+     */
+    public default Stream<List<T>> parseBatches(Path path) throws IOException {
+        return parse(path).map(Collections::singletonList);
+    }
+    
+    /**
+     * Parse source into batches of records, one batch per parsed buffer, see {@link #parseBatches(InputStream)}.
+     * 
+     * @param bas - source to parse
+     * @return stream of non-empty batches of parsed records
+     */
+    public default Stream<List<T>> parseBatches(ByteArraySource bas) {
+        return parse(bas).map(Collections::singletonList);
+    }
+    
+    /**
+     * Pass each record of the input to the handler, on the calling thread and in input order. Records are not mapped 
+     * and no stream is involved, so nothing is allocated per record, which suits aggregations that only read 
+     * few fields of each record. Reading ahead, if enabled, still happens on dedicated thread.
+     * Default implementation traverses {@link #parse(InputStream)} sequentially and passes its elements 
+     * to the handler, so it only works for parsers that produce {@link CSVRecord}.
+     * 
+     * @param is - input to parse
+     * @param handler - handler of the records
+     * @throws UnsupportedOperationException if default implementation is used by parser that maps records
+     */
+    public default void forEachRecord(InputStream is, RecordHandler handler) {
+        try (Stream<T> records = parse(is)) {
+            records.sequential().forEachOrdered(record -> handler.onRecord(RecordViews.asRecord(record, this)));
+        }
+    }
+    
+    /**
+     * Pass each record of the file to the handler, see {@link #forEachRecord(InputStream, RecordHandler)}.
+     * 
+     * @param path - file to parse
+     * @param handler - handler of the records
+     * @throws IOException if file can not be opened or mapped
+     */
+    public default void forEachRecord(Path path, RecordHandler handler) throws IOException {
+        try (Stream<T> records = parse(path)) {
+            records.sequential().forEachOrdered(record -> handler.onRecord(RecordViews.asRecord(record, this)));
+        }
+    }
+    
+    /**
+     * Pass each record of the source to the handler, see {@link #forEachRecord(InputStream, RecordHandler)}.
+     * 
+     * @param bas - source to parse
+     * @param handler - handler of the records
+     */
+    public default void forEachRecord(ByteArraySource bas, RecordHandler handler) {
+        try (Stream<T> records = parse(bas)) {
+            records.sequential().forEachOrdered(record -> handler.onRecord(RecordViews.asRecord(record, this)));
+        }
+    }
+    
+    /**
+     * Fold records of the input into accumulators, without mapping them. Each parsed chunk is folded into its own 
+     * accumulator by the thread that parses the chunk, accumulators are then merged in input order, so merge 
+     * function should be associative, but does not need to be commutative. Record object is re-used, 
+     * header-aware parser passes {@link CSVRecordWithHeader}. Default implementation folds all records 
+     * into single accumulator with {@link #forEachRecord(InputStream, RecordHandler)}, so merge is not called.
+     * 
+     * @param is - input to parse
+     * @param accumulatorFactory - creates empty accumulator
+     * @param accumulate - folds record into accumulator
+     * @param merge - merges two accumulators, can return either of them
+     * @param <A> - the type of the accumulator
+     * @return accumulator of all records, empty accumulator if input has no records
+     * @throws UnsupportedOperationException if default implementation is used by parser that maps records
+     */
+    public default <A> A parseAndReduce(InputStream is, Supplier<A> accumulatorFactory, BiConsumer<A, CSVRecord> accumulate, 
+            BinaryOperator<A> merge) {
+        A accumulator = accumulatorFactory.get();
+        forEachRecord(is, record -> accumulate.accept(accumulator, record));
+        return accumulator;
+    }
+    
+    /**
+     * Fold records of the file into accumulators, see {@link #parseAndReduce(InputStream, Supplier, BiConsumer, BinaryOperator)}.
+     * 
+     * @param path - file to parse
+     * @param accumulatorFactory - creates empty accumulator
+     * @param accumulate - folds record into accumulator
+     * @param merge - merges two accumulators, can return either of them
+     * @param <A> - the type of the accumulator
+     * @return accumulator of all records, empty accumulator if file has no records
+     * @throws IOException if file can not be opened or mapped
+     */
+    public default <A> A parseAndReduce(Path path, Supplier<A> accumulatorFactory, BiConsumer<A, CSVRecord> accumulate, 
+            BinaryOperator<A> merge) throws IOException {
+        A accumulator = accumulatorFactory.get();
+        forEachRecord(path, record -> accumulate.accept(accumulator, record));
+        return accumulator;
+    }
+    
+    /**
+     * Fold records of the source into accumulators, see {@link #parseAndReduce(InputStream, Supplier, BiConsumer, BinaryOperator)}.
+     * 
+     * @param bas - source to parse
+     * @param accumulatorFactory - creates empty accumulator
+     * @param accumulate - folds record into accumulator
+     * @param merge - merges two accumulators, can return either of them
+     * @param <A> - the type of the accumulator
+     * @return accumulator of all records, empty accumulator if source has no records
+     */
+    public default <A> A parseAndReduce(ByteArraySource bas, Supplier<A> accumulatorFactory, BiConsumer<A, CSVRecord> accumulate, 
+            BinaryOperator<A> merge) {
+        A accumulator = accumulatorFactory.get();
+        forEachRecord(bas, record -> accumulate.accept(accumulator, record));
+        return accumulator;
+    }
+    
+    /**
+     * Open cursor over records of the input. Records are parsed on the calling thread as cursor is moved, 
+     * reading ahead, if enabled, still happens on dedicated thread.
+     * Default implementation moves over {@link #parse(InputStream)} sequentially and copies fields of each element,
+     * so it only works for parsers that produce {@link CSVRecord}, which return null once fields are exhausted.
+     * 
+     * @param is - input to parse
+     * @return cursor positioned before the first record, that should be closed
+     * @throws UnsupportedOperationException on move, if default implementation is used by parser that maps records
+     */
+    public default CSVCursor openCursor(InputStream is) {
+        return RecordViews.cursor(parse(is), this);
+    }
+    
+    /**
+     * Open cursor over records of the file, see {@link #openCursor(InputStream)}.
+     * 
+     * @param path - file to parse
+     * @return cursor positioned before the first record, that should be closed to release the file
+     * @throws IOException if file can not be opened or mapped
+     */
+    public default CSVCursor openCursor(Path path) throws IOException {
+        return RecordViews.cursor(parse(path), this);
+    }
+    
+    /**
+     * Open cursor over records of the source, see {@link #openCursor(InputStream)}.
+     * 
+     * @param bas - source to parse
+     * @return cursor positioned before the first record, that should be closed
+     */
+    public default CSVCursor openCursor(ByteArraySource bas) {
+        return RecordViews.cursor(parse(bas), this);
+    }
 }
\ No newline at end of file
@@ -3,9 +3,13 @@ package uk.elementarysoftware.quickcsv.api;
 import java.nio.charset.Charset;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 import uk.elementarysoftware.quickcsv.parser.FieldSubsetView;
+import uk.elementarysoftware.quickcsv.parser.IOStatistics;
+import uk.elementarysoftware.quickcsv.parser.ParsingOptions;
 import uk.elementarysoftware.quickcsv.parser.QuickCSVParser;
 
 /**
@@ -27,6 +31,8 @@ public class CSVParserBuilder<T, K extends Enum<K>> {
     
     private Charset charset = Charset.defaultCharset();
     
+    private final ParsingOptions options = new ParsingOptions();
+    
     private CSVParserBuilder() {
     }
 
@@ -154,14 +160,174 @@ public class CSVParserBuilder<T, K extends Enum<K>> {
         return usingCharset(Charset.forName(charsetName));
     }
     
+    /**
+     * Read {@link java.io.InputStream} sources on dedicated thread, that keeps up to specified number of filled 
+     * buffers queued ahead of parsing, so that I/O overlaps with parsing and mapping. 
+     * Resulting stream should be closed to stop the reading thread when stream is not consumed fully. 
+     * By default read-ahead is disabled.
+     * @param depth - number of buffers to read ahead, 0 to disable read-ahead
+     * @return this parser builder
+     */
+    public CSVParserBuilder<T, K> usingReadAhead(int depth) {
+        this.options.withReadAhead(depth);
+        return this;
+    }
+    
+    /**
+     * Keep reading {@link java.io.InputStream} sources until buffer is full or specified delay has passed. 
+     * Network streams often return only few kilobytes per read, so that each buffer holds just a handful of lines
+     * and per buffer overhead dominates parsing. Delay is checked between reads. 
+     * By default each buffer is filled by single read.
+     * @param maxDelay - maximum time to spend filling single buffer
+     * @param unit - time unit of the delay
+     * @return this parser builder
+     */
+    public CSVParserBuilder<T, K> usingReadCoalescing(long maxDelay, TimeUnit unit) {
+        this.options.withReadCoalescing(maxDelay, unit);
+        return this;
+    }
+    
+    /**
+     * Collect I/O statistics, such as buffer fill ratio or number of times parsing stalled waiting for read-ahead, 
+     * into supplied object.
+     * @param statistics - statistics to update during parsing
+     * @return this parser builder
+     */
+    public CSVParserBuilder<T, K> usingStatistics(IOStatistics statistics) {
+        this.options.withStatistics(statistics);
+        return this;
+    }
+    
+    /**
+     * Skip specified number of records at the start of each parsed source, after the header if header is read 
+     * from the source. Skipped records are only scanned for line ends, their fields are not parsed and they are 
+     * not passed to the mapper, unlike with {@link java.util.stream.Stream#skip(long)}. 
+     * When several files are parsed at once, records are skipped in each file.
+     * @param n - number of records to skip
+     * @return this parser builder
+     */
+    public CSVParserBuilder<T, K> skipRecords(long n) {
+        this.options.withSkipRecords(n);
+        return this;
+    }
+    
+    /**
+     * Parse at most specified number of records of each source, following skipped records if any. 
+     * Source is not read further once the limit is met and its buffers are released. 
+     * When several files are parsed at once, the limit applies to each file.
+     * @param n - maximum number of records to parse
+     * @return this parser builder
+     */
+    public CSVParserBuilder<T, K> maxRecords(long n) {
+        this.options.withMaxRecords(n);
+        return this;
+    }
+    
+    /**
+     * Parse without preserving order of the records, for consumers that do not depend on it, such as aggregations.
+     * Resulting streams are not ordered, so parallel operations do not keep track of encounter order, and 
+     * {@link java.io.InputStream} and other sequential sources are read by parsing threads themselves, each thread 
+     * claims next buffer once it is done with previous one, instead of buffers being handed out by single splitting thread. 
+     * Skipped records and record limit still apply to the start of the source.
+     * @return this parser builder
+     */
+    public CSVParserBuilder<T, K> unordered() {
+        this.options.withUnordered(true);
+        return this;
+    }
+    
+    /**
+     * Run parallel parsing in supplied pool instead of {@link ForkJoinPool#commonPool()}, so that parsing does not 
+     * compete with other parallel streams and can be capped or isolated. Terminal operations of resulting streams 
+     * are submitted to the pool and calling thread waits for them to complete. 
+     * Pool can be shared by several parsers and is not shut down by the parser.
+     * @param executor - pool to run parsing in
+     * @return this parser builder
+     */
+    public CSVParserBuilder<T, K> usingExecutor(ForkJoinPool executor) {
+        this.options.withExecutor(Objects.requireNonNull(executor));
+        return this;
+    }
+    
+    /**
+     * Run each parse in its own pool with specified number of threads, instead of {@link ForkJoinPool#commonPool()}. 
+     * Pool is shut down once terminal operation completes or stream is closed. 
+     * @param parallelism - number of threads parsing single source
+     * @return this parser builder
+     */
+    public CSVParserBuilder<T, K> usingParallelism(int parallelism) {
+        this.options.withParallelism(parallelism);
+        return this;
+    }
+    
+    /**
+     * Parse {@link java.io.InputStream} and other sequential sources with staged pipeline rather than parallel stream:
+     * dedicated thread reads the source and joins lines broken between buffers, specified number of threads 
+     * parse and map whole buffers, and records are returned in source order by sequential stream. 
+     * Up to two buffers per parsing thread are in flight, so memory use is bounded by buffer size. 
+     * Resulting stream should be closed to stop the threads when stream is not consumed fully. 
+     * Random access sources, such as files, are not affected. By default pipeline is disabled.
+     * @param nParsers - number of parsing threads, 0 to disable pipeline
+     * @return this parser builder
+     */
+    public CSVParserBuilder<T, K> usingPipeline(int nParsers) {
+        this.options.withPipeline(nParsers);
+        return this;
+    }
+    
+    /**
+     * Parse {@link java.io.InputStream} and other sequential sources without blocking platform threads, 
+     * for services that parse many small sources concurrently. Source is read on virtual thread, keeping 
+     * read-ahead buffers queued, and records are parsed sequentially by the thread that consumes the stream, 
+     * so blocking reads do not occupy threads of {@link java.util.concurrent.ForkJoinPool#commonPool()}. 
+     * Pipeline threads are virtual as well. Buffers are pooled and shared by all parses of the parser, 
+     * so buffer size should be chosen with number of concurrent parses in mind. 
+     * On Java versions without virtual threads daemon platform threads are used instead.
+     * @return this parser builder
+     */
+    public CSVParserBuilder<T, K> usingVirtualThreads() {
+        this.options.withVirtualThreads(true);
+        return this;
+    }
+    
+    /**
+     * Allow line breaks within quoted fields, as permitted by RFC 4180. By default line breaks always end the record, 
+     * so that buffers can be split on the last line end without looking at the rest of the buffer. 
+     * With this option each buffer of sequential source is scanned to track quotes before it is split, 
+     * and parts of the file preceding split points are scanned in parallel to find quote state at the start 
+     * of each block, so parallel parsing is retained. Each block is scanned once. 
+     * Each record should still fit into the buffer. Has no effect when quote character is not used. 
+     * Offsets of {@link RowIndex} and splits of {@link CSVSplitPlanner} 
+     * are line based and should not be used with such data.
+     * @return this parser builder
+     */
+    public CSVParserBuilder<T, K> allowingLineBreaksInQuotes() {
+        this.options.withLineBreaksInQuotes(true);
+        return this;
+    }
+    
+    /**
+     * Limit number of buffers in flight for each parse, that is buffers that were read but whose records were not yet 
+     * parsed and mapped, so that memory use is bounded by limit times buffer size even if the consumer is slower than 
+     * the input. Once limit is reached, reading waits until parsing releases a buffer, waiting time is recorded 
+     * by {@link #usingStatistics(IOStatistics)}. Limit below number of parsing threads also limits parallelism. 
+     * With virtual threads buffers are then no longer shared between parses. By default number of buffers is not limited.
+     * @param maxBuffers - limit of buffers in flight, at least 2, or 0 for no limit
+     * @return this parser builder
+     */
+    public CSVParserBuilder<T, K> usingMaxBuffersInFlight(int maxBuffers) {
+        this.options.withMaxBuffersInFlight(maxBuffers);
+        return this;
+    }
+    
     /**
      * Construct parser using current setting
      * @return CSV Parser
      */
     public CSVParser<T> build() {
         return subsetView == null ? 
-                new QuickCSVParser<T,K>(bufferSize, metadata, recordMapper, charset) :
-                new QuickCSVParser<T,K>(bufferSize, metadata, recordWithHeaderMapper, subsetView, charset);
+                new QuickCSVParser<T,K>(bufferSize, metadata, recordMapper, charset, options.copy()) :
+                new QuickCSVParser<T,K>(bufferSize, metadata, recordWithHeaderMapper, subsetView, charset, options.copy());
     }
     
     public static class CSVFileMetadata {
@@ -0,0 +1,75 @@
+package uk.elementarysoftware.quickcsv.api;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import uk.elementarysoftware.quickcsv.ioutils.IOUtils;
+import uk.elementarysoftware.quickcsv.parser.RecordAlignedSplitPlanner;
+
+/**
+ * Plans record aligned splits of a file, that can be distributed between workers and parsed 
+ * with {@link CSVParser#parse(Path, long, long)}. 
+ * 
+ * Each split boundary is a record start as seen by the parser: it follows CR or LF line end, and empty lines 
+ * that follow are skipped. Only small window after each candidate boundary is read, so planning does not scan the file.
+ */
+public class CSVSplitPlanner {
+    
+    private CSVSplitPlanner() {
+    }
+    
+    /**
+     * Splits the file into consecutive ranges of roughly target size. Range is extended to the start of the record
+     * that follows its last byte, ranges longer than target size are therefore produced for long lines.
+     * @param path - file to split
+     * @param targetSplitSize - target size of each split in bytes
+     * @return splits covering whole file, in order of the file, or empty list for empty file
+     * @throws IOException if file can not be read
+     */
+    public static List<Split> plan(Path path, long targetSplitSize) throws IOException {
+        return RecordAlignedSplitPlanner.plan(path, targetSplitSize);
+    }
+    
+    /*
+     * Opens records that start within byte range of the file, for parsers that parse ranges as separate inputs.
+     */
+    static InputStream openRange(Path path, long startOffset, long endOffset) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            long start = RecordAlignedSplitPlanner.nextRecordStart(channel, startOffset);
+            long end = RecordAlignedSplitPlanner.nextRecordStart(channel, endOffset);
+            return IOUtils.limit(Channels.newInputStream(channel.position(start)), Math.max(0, end - start));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+    
+    /**
+     * Byte range of the file, start is inclusive and end is exclusive.
+     */
+    public static class Split {
+        
+        public final long start;
+        public final long end;
+        
+        public Split(long start, long end) {
+            this.start = start;
+            this.end = end;
+        }
+        
+        public long size() {
+            return end - start;
+        }
+
+        @Override
+        public String toString() {
+            return "Split [start=" + start + ", end=" + end + "]";
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package uk.elementarysoftware.quickcsv.api;
+
+/**
+ * Receives records of the source one by one, see {@link CSVParser#forEachRecord(ByteArraySource, RecordHandler)}.
+ * 
+ * Record object is re-used and mutated by the parser once handler returns, so handler can not store reference to 
+ * the record or its fields. Header-aware parser passes {@link CSVRecordWithHeader}.
+ */
+@FunctionalInterface
+public interface RecordHandler {
+    
+    public void onRecord(CSVRecord record);
+}
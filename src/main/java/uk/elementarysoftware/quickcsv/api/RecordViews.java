@@ -0,0 +1,81 @@
+package uk.elementarysoftware.quickcsv.api;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Views of parsed elements as records, used by default implementations of record based methods of {@link CSVParser}.
+ */
+class RecordViews {
+    
+    private RecordViews() {
+    }
+    
+    static CSVRecord asRecord(Object element, CSVParser<?> parser) {
+        if (element instanceof CSVRecord) return (CSVRecord) element;
+        throw new UnsupportedOperationException(parser.getClass().getName()
+                + " does not produce CSVRecord and should override record based methods of CSVParser");
+    }
+    
+    /*
+     * Cursor over parsed elements, each element is viewed as record and its fields are copied once cursor is moved.
+     */
+    static CSVCursor cursor(Stream<?> elements, CSVParser<?> parser) {
+        return new ElementCursor(elements, parser);
+    }
+    
+    private static class ElementCursor implements CSVCursor {
+        
+        private final Stream<?> elements;
+        private final Iterator<?> iterator;
+        private final CSVParser<?> parser;
+        private final List<Field> fields = new ArrayList<>();
+        
+        private boolean isOnRecord = false;
+        private boolean isClosed = false;
+        
+        ElementCursor(Stream<?> elements, CSVParser<?> parser) {
+            this.elements = elements;
+            this.iterator = elements.sequential().iterator();
+            this.parser = parser;
+        }
+
+        @Override
+        public boolean next() {
+            this.isOnRecord = false;
+            fields.clear();
+            if (isClosed || !iterator.hasNext()) return false;
+            CSVRecord record = asRecord(iterator.next(), parser);
+            Field field;
+            while ((field = record.getNextField()) != null) {
+                fields.add(field.clone());
+            }
+            this.isOnRecord = true;
+            return true;
+        }
+
+        @Override
+        public int fieldCount() {
+            return fields.size();
+        }
+
+        @Override
+        public Field field(int index) {
+            if (!isOnRecord) throw new IllegalStateException("Cursor is not positioned on a record");
+            if (index < 0 || index >= fields.size()) {
+                throw new IndexOutOfBoundsException("Field "+index+" of record with "+fields.size()+" fields");
+            }
+            return fields.get(index);
+        }
+
+        @Override
+        public void close() {
+            if (isClosed) return;
+            this.isClosed = true;
+            this.isOnRecord = false;
+            elements.close();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package uk.elementarysoftware.quickcsv.api;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import uk.elementarysoftware.quickcsv.parser.SparseRowIndex;
+
+/**
+ * Sparse index of record offsets within a file, that allows to start parsing from given record without
+ * reading preceding content. Records are counted from the start of the file, including header rows, and
+ * start at the first byte that is not line end following line end, same as ranges of the parser.
+ */
+public interface RowIndex {
+
+    /**
+     * Builds index of the file.
+     * @param path - file to index
+     * @param stride - index every stride-th record
+     * @return index of the file
+     * @throws IOException if file can not be read
+     */
+    public static RowIndex build(Path path, int stride) throws IOException {
+        return SparseRowIndex.build(path, stride);
+    }
+
+    /**
+     * Loads index saved by {@link #save(Path)}.
+     * @param path - file to read index from
+     * @return loaded index
+     * @throws IOException if file can not be read or is not an index
+     */
+    public static RowIndex load(Path path) throws IOException {
+        return SparseRowIndex.load(path);
+    }
+
+    /**
+     * Saves index, usually as sidecar file next to indexed file.
+     * @param path - file to write index to
+     * @throws IOException if file can not be written
+     */
+    public void save(Path path) throws IOException;
+
+    /**
+     * @return number of records in the indexed file, including header rows
+     */
+    public long getRowCount();
+
+    /**
+     * @return distance in records between indexed records
+     */
+    public int getStride();
+}
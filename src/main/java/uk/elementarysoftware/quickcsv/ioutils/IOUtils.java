@@ -1,7 +1,9 @@
 package uk.elementarysoftware.quickcsv.ioutils;
 
 import java.io.Closeable;
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 
 public class IOUtils {
     
@@ -14,4 +16,46 @@ public class IOUtils {
             // ignore
         }
     }
+    
+    /**
+     * @return stream that ends after given number of bytes of the underlying stream and closes it when closed
+     */
+    public static InputStream limit(InputStream is, long limit) {
+        return new FilterInputStream(is) {
+            private long remaining = limit;
+
+            @Override
+            public int read() throws IOException {
+                if (remaining <= 0) return -1;
+                int result = super.read();
+                if (result >= 0) remaining--;
+                return result;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                if (remaining <= 0) return -1;
+                int result = super.read(b, off, (int) Math.min(len, remaining));
+                if (result > 0) remaining -= result;
+                return result;
+            }
+
+            @Override
+            public long skip(long n) throws IOException {
+                long result = super.skip(Math.min(n, remaining));
+                remaining -= result;
+                return result;
+            }
+
+            @Override
+            public int available() throws IOException {
+                return (int) Math.min(super.available(), remaining);
+            }
+
+            @Override
+            public boolean markSupported() {
+                return false;
+            }
+        };
+    }
 }
@@ -0,0 +1,205 @@
+package uk.elementarysoftware.quickcsv.parser;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import uk.elementarysoftware.quickcsv.api.ByteArraySource;
+import uk.elementarysoftware.quickcsv.functional.Pair;
+
+/**
+ * Source of BGZF compressed data, that is gzip consisting of independent members, each having its compressed size 
+ * recorded in the header. Blocks can therefore be separated without inflating them. 
+ * 
+ * Consecutive blocks are grouped so that their inflated content fills single buffer, groups are inflated 
+ * concurrently on the pool parser runs in and handed to the parser in order. Buffers are taken in order too, 
+ * and only waited for when no group is in flight, so that limit of buffers in flight can not stall inflation 
+ * of the group parser waits for.
+ */
+class BgzfBlockSource implements ByteArraySource {
+    
+    static final int HEADER_SIZE = 18;
+    
+    private static final int GZIP_ID1 = 0x1f;
+    private static final int GZIP_ID2 = 0x8b;
+    private static final int CM_DEFLATE = 8;
+    private static final int FLG_FEXTRA = 4;
+    private static final int TRAILER_SIZE = 8;
+    
+    private final InputStream is;
+    private final BufferPool pool;
+    private final ForkJoinPool executor;
+    private final int maxInFlight;
+    private final Deque<CompletableFuture<Pair<byte[], Integer>>> inFlight = new ArrayDeque<>();
+    
+    private byte[] pendingBlock = null;
+    private List<byte[]> pendingGroup = null; //group that waits for a buffer
+    private boolean isInputExhausted = false;
+
+    /**
+     * @param executor - pool groups are inflated in, number of groups in flight follows its parallelism
+     */
+    BgzfBlockSource(InputStream is, BufferPool pool, ForkJoinPool executor) {
+        this.is = is;
+        this.pool = pool;
+        this.executor = executor;
+        this.maxInFlight = 2 * executor.getParallelism();
+    }
+    
+    /**
+     * @param header - at least first {@value #HEADER_SIZE} bytes of the content 
+     * @return true if content starts with BGZF block
+     */
+    static boolean isBgzf(byte[] header, int length) {
+        if (length < HEADER_SIZE) return false;
+        if ((header[0] & 0xff) != GZIP_ID1 || (header[1] & 0xff) != GZIP_ID2 || header[2] != CM_DEFLATE) return false;
+        if ((header[3] & FLG_FEXTRA) == 0) return false;
+        return header[12] == 'B' && header[13] == 'C' && uint16(header, 14) == 2;
+    }
+
+    @Override
+    public synchronized ByteArrayChunk getNext() throws Exception {
+        while (inFlight.size() < maxInFlight && (pendingGroup != null || !isInputExhausted)) {
+            List<byte[]> group = pendingGroup != null ? pendingGroup : nextGroup();
+            if (group.isEmpty()) continue;
+            byte[] buffer = bufferFor(group, inFlight.isEmpty());
+            this.pendingGroup = buffer == null ? group : null;
+            if (buffer == null) break;
+            inFlight.add(CompletableFuture.supplyAsync(() -> inflate(group, buffer), executor));
+        }
+        if (inFlight.isEmpty()) return new ByteArrayChunk(new byte[0], 0, true, b -> {});
+        Pair<byte[], Integer> inflated;
+        try {
+            inflated = inFlight.poll().join();
+        } catch (CompletionException e) {
+            throw (e.getCause() instanceof Exception) ? (Exception) e.getCause() : e;
+        }
+        boolean isLast = isInputExhausted && pendingGroup == null && inFlight.isEmpty();
+        byte[] buffer = inflated.first;
+        return new ByteArrayChunk(buffer, inflated.second, isLast, buffer.length == pool.getBufferSize() ? pool::handBack : b -> {});
+    }
+
+    /**
+     * Releases buffers of blocks that are being inflated, once inflation completes.
+     */
+    @Override
+    public synchronized void close() {
+        CompletableFuture<Pair<byte[], Integer>> inflating;
+        while ((inflating = inFlight.poll()) != null) {
+            inflating.thenAccept(inflated -> {
+                if (inflated.first.length == pool.getBufferSize()) pool.handBack(inflated.first);
+            });
+        }
+        this.isInputExhausted = true;
+        this.pendingGroup = null;
+    }
+
+    /*
+     * Reads blocks until their total inflated size would exceed buffer size. 
+     */
+    private List<byte[]> nextGroup() throws IOException {
+        List<byte[]> group = new ArrayList<>();
+        long inflatedSize = 0;
+        while (true) {
+            if (pendingBlock == null) pendingBlock = readBlock();
+            if (pendingBlock == null) {
+                isInputExhausted = true;
+                return group;
+            }
+            int blockSize = inflatedSize(pendingBlock);
+            if (!group.isEmpty() && inflatedSize + blockSize > pool.getBufferSize()) return group;
+            group.add(pendingBlock);
+            inflatedSize += blockSize;
+            pendingBlock = null;
+        }
+    }
+
+    private byte[] readBlock() throws IOException {
+        byte[] header = new byte[HEADER_SIZE];
+        int read = readFully(header, 0, header.length);
+        if (read == 0) return null;
+        if (!isBgzf(header, read)) throw new IOException("Input is not BGZF, block header is invalid");
+        int xlen = uint16(header, 10);
+        int blockSize = uint16(header, 16) + 1;
+        if (blockSize < 12 + xlen + TRAILER_SIZE) throw new IOException("Invalid BGZF block size "+blockSize);
+        byte[] block = new byte[blockSize];
+        System.arraycopy(header, 0, block, 0, header.length);
+        if (readFully(block, header.length, blockSize - header.length) != blockSize - header.length) {
+            throw new EOFException("Unexpected end of BGZF block");
+        }
+        return block;
+    }
+    
+    /*
+     * Returns null if pool has no buffer available and waiting is not allowed.
+     */
+    private byte[] bufferFor(List<byte[]> group, boolean isWaiting) throws IOException {
+        long total = 0;
+        for (byte[] block : group) total += inflatedSize(block);
+        if (total > pool.getBufferSize()) return new byte[(int) total];
+        return isWaiting ? pool.getBuffer() : pool.tryGetBuffer();
+    }
+    
+    private Pair<byte[], Integer> inflate(List<byte[]> group, byte[] buffer) {
+        Inflater inflater = new Inflater(true);
+        CRC32 crc = new CRC32();
+        int offset = 0;
+        try {
+            for (byte[] block : group) {
+                int dataStart = 12 + uint16(block, 10);
+                int size = inflatedSize(block);
+                inflater.reset();
+                inflater.setInput(block, dataStart, block.length - TRAILER_SIZE - dataStart);
+                int inflated = 0;
+                while (inflated < size && !inflater.finished()) {
+                    int n = inflater.inflate(buffer, offset + inflated, size - inflated);
+                    if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) break;
+                    inflated += n;
+                }
+                crc.reset();
+                crc.update(buffer, offset, inflated);
+                if (inflated != size || crc.getValue() != uint32(block, block.length - TRAILER_SIZE)) {
+                    throw new CompletionException(new IOException("Corrupted BGZF block"));
+                }
+                offset += size;
+            }
+            return Pair.of(buffer, offset);
+        } catch (DataFormatException e) {
+            throw new CompletionException(new IOException(e));
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private int readFully(byte[] buffer, int offset, int length) throws IOException {
+        int total = 0;
+        while (total < length) {
+            int read = is.read(buffer, offset + total, length - total);
+            if (read == -1) break;
+            total += read;
+        }
+        return total;
+    }
+
+    private static int inflatedSize(byte[] block) {
+        return (int) uint32(block, block.length - 4);
+    }
+
+    private static int uint16(byte[] b, int offset) {
+        return (b[offset] & 0xff) | (b[offset + 1] & 0xff) << 8;
+    }
+    
+    private static long uint32(byte[] b, int offset) {
+        return uint16(b, offset) | (long) uint16(b, offset + 2) << 16;
+    }
+}
@@ -1,21 +1,71 @@
 package uk.elementarysoftware.quickcsv.parser;
 
+import java.io.InterruptedIOException;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicInteger;
 
-/** Pools large, long-living byte arrays to minimise old generation GC */
+/** 
+ * Pools large, long-living byte arrays to minimise old generation GC.
+ * 
+ * Pool can limit number of buffers in flight, that is taken but not yet handed back, in which case taking buffer 
+ * blocks until another buffer is handed back, so that fast reader can not get ahead of slow parsing or consumer.
+ * Blocking is managed, so that fork join pool can compensate for blocked worker. As number of buffers is then
+ * limited, they are kept by the pool once handed back.
+ */
 class BufferPool {
 
     private final int bufferSize;
     private final AtomicInteger buffersCreated = new AtomicInteger(0);
     private final Queue<byte[]> buffers = new ConcurrentLinkedQueue<byte[]>();
+    private final boolean isShared;
+    private final Semaphore permits; //null if number of buffers in flight is not limited
+    private final IOStatistics statistics;
 
     BufferPool(int bufferSize) {
+        this(bufferSize, false);
+    }
+    
+    /**
+     * @param isShared - pool is shared by several parses and keeps buffers once all of them are handed back, 
+     *  otherwise buffers are dropped as parsing is assumed to be completed
+     */
+    BufferPool(int bufferSize, boolean isShared) {
+        this(bufferSize, isShared, 0, new IOStatistics());
+    }
+    
+    /**
+     * @param maxBuffersInFlight - limit of buffers in flight, 0 if not limited
+     * @param statistics - receives buffer occupancy and time spent waiting for buffers
+     */
+    BufferPool(int bufferSize, boolean isShared, int maxBuffersInFlight, IOStatistics statistics) {
         this.bufferSize = bufferSize;
+        this.isShared = isShared;
+        this.permits = maxBuffersInFlight > 0 ? new Semaphore(maxBuffersInFlight) : null;
+        this.statistics = statistics;
     }
 
-    byte[] getBuffer() {
+    /**
+     * Takes buffer, waiting for one to be handed back if limit of buffers in flight is reached.
+     * @throws InterruptedIOException if thread is interrupted while waiting
+     */
+    byte[] getBuffer() throws InterruptedIOException {
+        if (permits != null && !permits.tryAcquire()) awaitPermit();
+        return takeBuffer();
+    }
+    
+    /**
+     * @return buffer or null if limit of buffers in flight is reached
+     */
+    byte[] tryGetBuffer() {
+        if (permits != null && !permits.tryAcquire()) return null;
+        return takeBuffer();
+    }
+    
+    private byte[] takeBuffer() {
+        statistics.onBufferTaken();
         byte[] result = buffers.poll();
         if (result == null) {
             buffersCreated.incrementAndGet();
@@ -24,16 +74,59 @@ class BufferPool {
             return result;
         }
     }
+    
+    private void awaitPermit() throws InterruptedIOException {
+        long start = System.nanoTime();
+        try {
+            ForkJoinPool.managedBlock(new PermitBlocker());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a buffer");
+        } finally {
+            statistics.onBufferWait(System.nanoTime() - start);
+        }
+    }
+
+    int getBufferSize() {
+        return bufferSize;
+    }
+    
+    /**
+     * @return whether number of buffers in flight is limited
+     */
+    boolean isBounded() {
+        return permits != null;
+    }
 
     void handBack(byte[] buffer) {
         buffers.add(buffer);
-        if (buffers.size() >= buffersCreated.get()) {
+        if (!isShared && !isBounded() && buffers.size() >= buffersCreated.get()) { //bounded pool holds few buffers
             clear();
         }
+        statistics.onBufferHandedBack();
+        if (permits != null) permits.release();
     }
 
     private void clear() {
         buffers.clear();
         buffersCreated.set(0);
     }
-}
\ No newline at end of file
+    
+    private class PermitBlocker implements ForkJoinPool.ManagedBlocker {
+        
+        private boolean isAcquired = false;
+
+        @Override
+        public boolean block() throws InterruptedException {
+            if (!isAcquired) permits.acquire();
+            this.isAcquired = true;
+            return true;
+        }
+
+        @Override
+        public boolean isReleasable() {
+            if (!isAcquired) this.isAcquired = permits.tryAcquire();
+            return isAcquired;
+        }
+    }
+}
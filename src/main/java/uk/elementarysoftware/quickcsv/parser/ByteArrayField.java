@@ -2,6 +2,7 @@ package uk.elementarysoftware.quickcsv.parser;
 
 import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
+import java.util.Arrays;
 
 import uk.elementarysoftware.quickcsv.api.Field;
 import uk.elementarysoftware.quickcsv.decoder.Decoder;
@@ -88,6 +89,11 @@ public class ByteArrayField implements Field {
         this.quote = quote;        
     }
     
+    void modifyBounds(byte[] buffer, int start, int end, Character quote) {
+        this.buffer = buffer;
+        modifyBounds(start, end, quote);
+    }
+    
     public void initFrom(ByteArrayField other) {
         this.buffer = other.buffer;
         this.start = other.start;
@@ -95,9 +101,12 @@ public class ByteArrayField implements Field {
         this.quote = other.quote;
     }
     
+    /**
+     * Copy of the field that remains valid when underlying buffer is re-used by the parser.
+     */
     @Override
     public Field clone() {
-        return new ByteArrayField(buffer, start, end, decoder.getCharset(), quote);
+        return new ByteArrayField(Arrays.copyOfRange(buffer, start, end), 0, end - start, decoder.getCharset(), quote);
     }
 
     @Override
@@ -0,0 +1,42 @@
+package uk.elementarysoftware.quickcsv.parser;
+
+import java.nio.charset.Charset;
+
+/**
+ * In-memory source, slices are views directly over supplied array, so no data is copied.
+ */
+class ByteArrayRangeSource extends RandomAccessSource {
+    
+    private final byte[] data;
+    private final int offset;
+    private final int length;
+
+    ByteArrayRangeSource(byte[] data, int offset, int length, BufferPool pool) {
+        super(pool);
+        if (offset < 0 || length < 0 || offset + length > data.length) 
+            throw new IndexOutOfBoundsException("offset=" + offset + ", length=" + length + ", array length=" + data.length);
+        this.data = data;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    @Override
+    long length() {
+        return length;
+    }
+
+    @Override
+    int read(long position, byte[] buffer, int offset, int length) {
+        int n = (int) Math.max(0, Math.min(length, this.length - position));
+        System.arraycopy(data, this.offset + (int) position, buffer, offset, n);
+        return n;
+    }
+
+    @Override
+    ByteSlice slice(long position, int length, Charset charset) {
+        int start = offset + (int) position;
+        int end = start + (int) Math.min(length, this.length - position);
+        ByteArrayChunk chunk = new ByteArrayChunk(data, end, end == offset + this.length, b -> {});
+        return new SingleByteSlice(chunk, data, start, end, charset);
+    }
+}
@@ -0,0 +1,220 @@
+package uk.elementarysoftware.quickcsv.parser;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
+import uk.elementarysoftware.quickcsv.functional.Pair;
+
+/**
+ * Slice over byte buffer, usually direct or memory mapped, so that data is not copied onto the heap. 
+ * 
+ * Line and field boundaries are found directly in the buffer, only bytes of the fields that are actually
+ * returned are copied to small scratch array, so that fields can be decoded. Scratch array is re-used 
+ * once slice moves to the next line.
+ */
+final class ByteBufferSlice implements ByteSlice {
+    final int start;//inclusive
+    final int end;//exclusive
+    final ByteBuffer buffer;
+    final ByteArrayField fieldTemplateObject;
+    final Charset charset;
+
+    int currentIndex;
+    
+    private byte[] fieldBuffer = new byte[256];
+    private int fieldBufferUsed = 0;
+
+    ByteBufferSlice(ByteBuffer buffer, int start, int end, Charset charset) {
+        this.buffer = buffer;
+        this.start = start;
+        this.end = end;
+        this.fieldTemplateObject = new ByteArrayField(fieldBuffer, 0, 0, charset);
+        this.currentIndex = start;
+        this.charset = charset;
+    }
+
+    @Override
+    public int size() {
+        return end - start;
+    }
+
+    @Override
+    public boolean hasMoreData() {
+        return currentIndex < end;
+    }
+
+    boolean frontTrim() {
+        boolean seenEOL = false;
+        for(; hasMoreData() && (buffer.get(currentIndex)==CR || buffer.get(currentIndex)==LF); currentIndex++) {
+            seenEOL = true;
+        }
+        return seenEOL;
+    }
+
+    @Override
+    public boolean nextLine() {
+        fieldBufferUsed = 0;
+        for(; hasMoreData() && buffer.get(currentIndex)!=CR && buffer.get(currentIndex)!=LF; currentIndex++);
+        return frontTrim();
+    }
+
+    @Override
+    public boolean nextLine(char quote) {
+        fieldBufferUsed = 0;
+        boolean isInQuotes = false;
+        for(; hasMoreData(); currentIndex++) {
+            byte cur = buffer.get(currentIndex);
+            if (cur == quote) isInQuotes = !isInQuotes;
+            else if (!isInQuotes && (cur == CR || cur == LF)) break;
+        }
+        return frontTrim();
+    }
+
+    @Override
+    public String currentLine() {
+        int startIdx = currentIndex;
+        for(; startIdx > start && buffer.get(startIdx)!=CR && buffer.get(startIdx)!=LF; startIdx--);
+        int endIdx = currentIndex;
+        for(; endIdx < end && buffer.get(endIdx)!=CR && buffer.get(endIdx)!=LF; endIdx++);
+        return new String(copyOf(startIdx, endIdx), charset);
+    }
+
+    @Override
+    public Pair<ByteSlice, ByteSlice> splitOnLastLineEnd() {
+        int i = end-1;
+        for (;i >=currentIndex && buffer.get(i) != LF; i--);
+        ByteBufferSlice prefix = new ByteBufferSlice(buffer, currentIndex, i+1, charset);
+        ByteBufferSlice suffix = new ByteBufferSlice(buffer, i+1, end, charset);
+        return Pair.of(prefix, suffix);
+    }
+
+    @Override
+    public Pair<ByteSlice, ByteSlice> splitOnLastLineEnd(char quote, boolean isInQuotes) {
+        int split = currentIndex;
+        for (int i = currentIndex; i < end; i++) {
+            byte cur = buffer.get(i);
+            if (cur == quote) isInQuotes = !isInQuotes;
+            else if (cur == LF && !isInQuotes) split = i + 1;
+        }
+        ByteBufferSlice prefix = new ByteBufferSlice(buffer, currentIndex, split, charset);
+        ByteBufferSlice suffix = new ByteBufferSlice(buffer, split, end, charset);
+        return Pair.of(prefix, suffix);
+    }
+
+    @Override
+    public boolean skipUntil(final char c) {
+        boolean isFound = false;
+        while(currentIndex < end) {
+            if (buffer.get(currentIndex)==c) {
+                currentIndex++;
+                isFound = true;
+                break;
+            }
+            currentIndex++;
+        }
+        return isFound;
+    }
+
+    @Override
+    public boolean skipUntil(char c, char q) {
+        boolean inQuote = currentIndex < end && buffer.get(currentIndex) == q;
+        if (!inQuote) return skipUntil(c);
+        currentIndex++;
+        boolean isFound = false;
+        while(currentIndex < end) {
+            if (buffer.get(currentIndex)==c && buffer.get(currentIndex-1) == q) {
+                currentIndex++;
+                isFound = true;
+                break;
+            }
+            currentIndex++;
+        }
+        return isFound;
+    }
+
+    @Override
+    public ByteArrayField nextField(final char c) {
+        int startIndex = currentIndex;
+        int endIndex = currentIndex;
+        while(currentIndex < end) {
+            byte cur = buffer.get(currentIndex);
+            if (cur == c || cur == CR || cur == LF) {
+                endIndex = currentIndex;
+                if (cur == c)
+                    currentIndex++;
+                break;
+            } else {
+                currentIndex++;
+            }
+        }
+        if (currentIndex == startIndex) return null;
+        if (currentIndex == end) endIndex = end;
+        return createField(startIndex, endIndex, null);
+    }
+
+    @Override
+    public ByteArrayField nextField(char c, char q) {
+        boolean inQuote = currentIndex < end && buffer.get(currentIndex) == q;
+        if (!inQuote) return nextField(c);
+        currentIndex++;
+        int startIndex = currentIndex;
+        int endIndex = currentIndex;
+        while(currentIndex < end) {
+            byte cur = buffer.get(currentIndex);
+            if ((cur == c || cur == CR || cur == LF) && buffer.get(currentIndex-1) == q) {
+                endIndex = currentIndex - 1;
+                if (cur == c) currentIndex++; //let frontTrim consume linebreaks later
+                break;
+            } else {
+                currentIndex++;
+            }
+        }
+        if (currentIndex == startIndex) return null;
+        if (currentIndex == end) {
+            if (buffer.get(end-1) == q) endIndex = end - 1; else endIndex = end;
+        }
+        return createField(startIndex, endIndex, q);
+    }
+    
+    /*
+     * Fields of the current line are copied one after another, so that fields returned earlier remain valid
+     * until next line, as expected by header-aware parsing.
+     */
+    private ByteArrayField createField(int startIndex, int endIndex, Character quote) {
+        int length = endIndex - startIndex;
+        if (fieldBufferUsed + length > fieldBuffer.length) {
+            byte[] grown = new byte[Math.max(2 * fieldBuffer.length, fieldBufferUsed + length)];
+            System.arraycopy(fieldBuffer, 0, grown, 0, fieldBufferUsed);
+            this.fieldBuffer = grown;
+        }
+        ByteBuffer src = buffer.duplicate();
+        src.position(startIndex);
+        src.get(fieldBuffer, fieldBufferUsed, length);
+        fieldTemplateObject.modifyBounds(fieldBuffer, fieldBufferUsed, fieldBufferUsed + length, quote);
+        fieldBufferUsed += length;
+        return fieldTemplateObject;
+    }
+    
+    private byte[] copyOf(int from, int to) {
+        byte[] result = new byte[to - from];
+        ByteBuffer src = buffer.duplicate();
+        src.position(from);
+        src.get(result);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return new String(copyOf(start, end), charset);
+    }
+
+    @Override
+    public void incrementUse() {
+        //buffer is not pooled, nothing to track
+    }
+
+    @Override
+    public void decremenentUse() {
+        //buffer is not pooled, nothing to track
+    }
+}
@@ -0,0 +1,39 @@
+package uk.elementarysoftware.quickcsv.parser;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
+/**
+ * Content of byte buffer, from its position to its limit. Buffer position is not modified.
+ * Slices read directly from the buffer, so direct buffers are parsed without copying their content onto the heap.
+ */
+class ByteBufferSource extends RandomAccessSource {
+    
+    private final ByteBuffer buffer;
+
+    ByteBufferSource(ByteBuffer buffer, BufferPool pool) {
+        super(pool);
+        this.buffer = buffer.slice();
+    }
+
+    @Override
+    long length() {
+        return buffer.limit();
+    }
+
+    @Override
+    int read(long position, byte[] buffer, int offset, int length) {
+        int n = (int) Math.max(0, Math.min(length, this.buffer.limit() - position));
+        ByteBuffer view = this.buffer.duplicate();
+        view.position((int) position);
+        view.get(buffer, offset, n);
+        return n;
+    }
+
+    @Override
+    ByteSlice slice(long position, int length, Charset charset) {
+        int start = (int) position;
+        int end = (int) Math.min(position + length, buffer.limit());
+        return new ByteBufferSlice(buffer, start, end, charset);
+    }
+}
@@ -0,0 +1,264 @@
+package uk.elementarysoftware.quickcsv.parser;
+
+import uk.elementarysoftware.quickcsv.functional.Pair;
+import uk.elementarysoftware.quickcsv.functional.PrimitiveFunctions.FunBiCharToBoolean;
+import uk.elementarysoftware.quickcsv.functional.PrimitiveFunctions.FunBiCharToT;
+import uk.elementarysoftware.quickcsv.functional.PrimitiveFunctions.FunCharToBoolean;
+import uk.elementarysoftware.quickcsv.functional.PrimitiveFunctions.FunCharToT;
+
+final class CompositeByteSlice implements ByteSlice {
+
+    private final SingleByteSlice prefix;
+    private final SingleByteSlice suffix;
+    private final ByteArrayField prefixFieldTemplateObject;
+    private final ByteArrayField suffixFieldTemplateObject;
+
+    private FunCharToT<ByteArrayField> nextFieldFun;
+    private FunBiCharToT<ByteArrayField> nextFieldFunQuoted;
+    private FunCharToBoolean skipUntilFun;
+    private FunBiCharToBoolean skipUntilFunQuoted;
+
+    CompositeByteSlice(SingleByteSlice prefix, SingleByteSlice suffix) {
+        this.prefix = prefix;
+        this.suffix = suffix;
+        this.prefixFieldTemplateObject = new ByteArrayField(prefix.buffer, 0, 0, prefix.charset);
+        this.suffixFieldTemplateObject = new ByteArrayField(suffix.buffer, 0, 0, suffix.charset);
+
+        this.nextFieldFun =  this::nextFieldWithPrefix;
+        this.nextFieldFunQuoted =  this::nextFieldWithPrefix;
+        this.skipUntilFun = this::skipUntilWithPrefix;
+        this.skipUntilFunQuoted = this::skipUntilWithPrefix;
+    }
+
+    /*
+     * -----------------------------------------------------------
+     * Generic functions below work on slice with non-empty prefix, but once prefix has been
+     * exhausted they will flip to simple suffix delegates.
+     * Only frequently called functions are implemented that way.
+     * -----------------------------------------------------------
+     */
+    private ByteArrayField nextFieldWithPrefix(char c) {
+        if (prefix.isEmpty()) {
+            flip();
+            return suffix.nextField(c);
+        }
+        int startIndex = currentIndex();
+        int endIndex = currentIndex();
+        byte cur = 0;
+        while(hasMoreData()) {
+            cur = currentByte();
+            if (cur == c || cur == CR || cur == LF) {
+                endIndex = currentIndex();
+                if (cur == c)
+                    nextByte();
+                break;
+            } else {
+                nextByte();
+            }
+        }
+        if (currentIndex() == startIndex) return null;
+        if (cur != c && !hasMoreData()) endIndex = prefix.end + suffix.end;
+        return createField(startIndex, endIndex, null);
+    }
+
+    private ByteArrayField nextFieldWithPrefix(char c, char quote) {
+        if (prefix.isEmpty()) {
+            flip();
+            return suffix.nextField(c, quote);
+        }
+        boolean inQuote = hasMoreData() && currentByte() == quote;
+        if (!inQuote) return nextField(c);
+        nextByte();
+        int startIndex = currentIndex();
+        int endIndex = currentIndex();
+        while(hasMoreData()) {
+            byte cur = currentByte();
+            if ((cur == c || cur == CR || cur == LF) && prevByte() == quote) {
+                endIndex = currentIndex() - 1;
+                if (cur == c)
+                    nextByte();
+                break;
+            } else {
+                nextByte();
+            }
+        }
+        if (currentIndex() == startIndex) return null;
+        if (isEmpty()) {
+            if (prevByte() == quote) endIndex = currentIndex() - 1; else endIndex = currentIndex();
+        }
+        return createField(startIndex, endIndex, quote);
+    }
+
+    private boolean skipUntilWithPrefix(char c) {
+        if (prefix.isEmpty()) {
+            flip();
+            return suffix.skipUntil(c);
+        }
+        boolean isFound = prefix.skipUntil(c);
+        if (isFound) {
+            return true;
+        } else {
+            return suffix.skipUntil(c);
+        }
+    }
+
+    private boolean skipUntilWithPrefix(char c, char q) {
+        if (prefix.isEmpty()) {
+            flip();
+            return suffix.skipUntil(c, q);
+        }
+        boolean inQuote = currentByte() == q;
+        if (!inQuote) return skipUntilWithPrefix(c); //field continued in suffix is not quoted, even if suffix starts with quote
+        nextByte();
+        while(hasMoreData()) {
+            if (currentByte() == c && prevByte() == q) {
+                nextByte();
+                return true;
+            }
+            nextByte();
+        }
+        return false;
+    }
+
+    private void flip() {
+        this.nextFieldFun =  suffix::nextField;
+        this.nextFieldFunQuoted =  suffix::nextField;
+        this.skipUntilFun = suffix::skipUntil;
+        this.skipUntilFunQuoted = suffix::skipUntil;
+    }
+    /*
+     * -----------------------------------------------------------
+     * end
+     * -----------------------------------------------------------
+    */
+
+    @Override
+    public Pair<ByteSlice, ByteSlice> splitOnLastLineEnd() {
+        Pair<ByteSlice, ByteSlice> sliced = suffix.splitOnLastLineEnd();
+        return Pair.of(ByteSlice.join(this.prefix, sliced.first), sliced.second);
+    }
+    
+    @Override
+    public Pair<ByteSlice, ByteSlice> splitOnLastLineEnd(char quote, boolean isInQuotes) {
+        Pair<ByteSlice, ByteSlice> sliced = suffix.splitOnLastLineEnd(quote, isInQuotes ^ prefix.isInQuotesAtEnd(quote));
+        return Pair.of(ByteSlice.join(this.prefix, sliced.first), sliced.second);
+    }
+
+    @Override
+    public int size() {
+        return prefix.size() + suffix.size();
+    }
+
+    @Override
+    public boolean hasMoreData() {
+        return prefix.hasMoreData() || suffix.hasMoreData();
+    }
+
+    @Override
+    public ByteArrayField nextField(char c) {
+        return nextFieldFun.apply(c);
+    }
+
+    @Override
+    public ByteArrayField nextField(char c, char quote) {
+        return nextFieldFunQuoted.apply(c, quote);
+    }
+
+    @Override
+    public boolean skipUntil(char c) {
+        return skipUntilFun.apply(c);
+    }
+
+    @Override
+    public boolean skipUntil(char c, char q) {
+        return skipUntilFunQuoted.apply(c, q);
+    }
+
+    @Override
+    public boolean nextLine() {
+        if (prefix.isEmpty()) {
+            return suffix.nextLine();
+        } else {
+            boolean seenEOL = prefix.nextLine();
+            if (seenEOL) {
+                if (prefix.isEmpty()) suffix.frontTrim();
+                return true;
+            } else {
+                return suffix.nextLine();
+            }
+        }
+    }
+
+    @Override
+    public boolean nextLine(char quote) {
+        if (prefix.isEmpty()) return suffix.nextLine(quote);
+        boolean isInQuotes = false;
+        while (hasMoreData()) {
+            byte cur = currentByte();
+            if (cur == quote) isInQuotes = !isInQuotes;
+            else if (!isInQuotes && (cur == CR || cur == LF)) break;
+            nextByte();
+        }
+        boolean seenEOL = frontTrim();
+        if (seenEOL && prefix.isEmpty()) suffix.frontTrim();
+        return seenEOL;
+    }
+
+    boolean frontTrim() {
+        return prefix.isEmpty() ? suffix.frontTrim() : prefix.frontTrim();
+    }
+
+    @Override
+    public String currentLine() {
+        return prefix.isEmpty() ? suffix.currentLine() : prefix.currentLine();
+    }
+
+    private ByteArrayField createField(int startIndex, int endIndex, Character quote) {
+        if (startIndex >= prefix.end) {
+            suffixFieldTemplateObject.modifyBounds(startIndex - prefix.end, endIndex - prefix.end, quote);
+            return suffixFieldTemplateObject;
+        }
+        if (endIndex < prefix.end) {
+            prefixFieldTemplateObject.modifyBounds(startIndex, endIndex, quote);
+            return prefixFieldTemplateObject;
+        }
+        byte[] result = new byte[endIndex - startIndex];
+        System.arraycopy(prefix.buffer, startIndex, result, 0, prefix.end - startIndex);
+        System.arraycopy(suffix.buffer, 0, result, prefix.end - startIndex, endIndex - prefix.end);
+        return new ByteArrayField(result, 0, result.length, prefix.charset, quote);
+    }
+
+    @Override
+    public String toString() {
+        return new StringBuffer().append(prefix).append(suffix).toString();
+    }
+
+    byte prevByte() {
+        if (suffix.currentIndex > suffix.start) return suffix.buffer[suffix.currentIndex - 1];
+        return prefix.buffer[prefix.currentIndex - 1];
+    }
+
+
+    byte currentByte() {
+        return prefix.isEmpty() ? suffix.buffer[suffix.currentIndex] : prefix.buffer[prefix.currentIndex];
+    }
+
+    void nextByte() {
+        if (prefix.isEmpty()) suffix.currentIndex++; else prefix.currentIndex++;
+    }
+
+    int currentIndex() {
+        return prefix.currentIndex + suffix.currentIndex;
+    }
+
+    @Override
+    public void decremenentUse() {
+        prefix.src.decrementUseCount();
+        suffix.src.decrementUseCount();
+    }
+
+    @Override
+    public void incrementUse() {
+        throw new IllegalStateException("Should not be called");
+    }
+}
@@ -50,6 +50,20 @@ public class FieldSubsetView<K extends Enum<K>> {
         }
     }
     
+    /**
+     * Reads header of another source from its first slice. Lookups are shared with this view when header of 
+     * the source is the same, otherwise they are computed for the new header. This view is not modified.
+     * @return view for the source
+     */
+    FieldSubsetView<K> forNextSource(ByteSlice slice, CSVFileMetadata metadata) {
+        FieldSubsetView<K> view = new FieldSubsetView<>(headerSource.newInstance(), fieldSubset);
+        view.headerSource.onSlice(slice, metadata);
+        if (!isFirstSlice && view.getHeader().equals(getHeader())) return this;
+        view.initLookups();
+        view.isFirstSlice = false;
+        return view;
+    }
+    
     private void initLookups() {
         List<String> header = headerSource.getHeader();
         headerIndexesOfK = getHeaderIndexesOfK(header);
@@ -117,6 +131,7 @@ public class FieldSubsetView<K extends Enum<K>> {
         
         abstract void onSlice(ByteSlice slice, CSVFileMetadata metadata);
         abstract List<String> getHeader();
+        abstract HeaderSource newInstance();
 
         private static class ExplicitHeader extends HeaderSource {
             private final String[] header;
@@ -132,6 +147,11 @@ public class FieldSubsetView<K extends Enum<K>> {
             
             @Override 
             void onSlice(ByteSlice slice, CSVFileMetadata metadata) {}
+            
+            @Override
+            HeaderSource newInstance() {
+                return this;
+            }
         }
         
         private static class SourceSuppliedHeader extends HeaderSource {
@@ -161,6 +181,11 @@ public class FieldSubsetView<K extends Enum<K>> {
             List<String> getHeader() {
                 return header;
             }
+            
+            @Override
+            HeaderSource newInstance() {
+                return new SourceSuppliedHeader(headerIndex);
+            }
         }
     }
 }
\ No newline at end of file
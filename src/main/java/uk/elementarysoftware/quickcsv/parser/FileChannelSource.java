@@ -0,0 +1,33 @@
+package uk.elementarysoftware.quickcsv.parser;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * File read with positional reads, so each worker reads its own range independently of others. 
+ * Unlike memory mapping has no size limitations and does not incur page fault costs.
+ */
+class FileChannelSource extends RandomAccessSource {
+    
+    private final FileChannel channel;
+    private final long length;
+
+    FileChannelSource(FileChannel channel, BufferPool pool) throws IOException {
+        super(pool);
+        this.channel = channel;
+        this.length = channel.size();
+    }
+
+    @Override
+    long length() {
+        return length;
+    }
+
+    @Override
+    int read(long position, byte[] buffer, int offset, int length) throws IOException {
+        int toRead = (int) Math.min(length, this.length - position);
+        if (toRead <= 0) return 0;
+        return channel.read(ByteBuffer.wrap(buffer, offset, toRead), position);
+    }
+}
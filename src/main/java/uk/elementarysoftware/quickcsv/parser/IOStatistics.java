@@ -0,0 +1,123 @@
+package uk.elementarysoftware.quickcsv.parser;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters that describe how input was read by the parser. Counters are cumulative and thread safe, 
+ * so single instance can be shared by several parsers or parses.
+ */
+public class IOStatistics {
+    
+    private final LongAdder chunksRead = new LongAdder();
+    private final LongAdder bytesRead = new LongAdder();
+    private final LongAdder bufferCapacity = new LongAdder();
+    private final LongAdder stalls = new LongAdder();
+    private final LongAdder stallNanos = new LongAdder();
+    private final AtomicLong buffersInFlight = new AtomicLong();
+    private final AtomicLong peakBuffersInFlight = new AtomicLong();
+    private final LongAdder bufferWaits = new LongAdder();
+    private final LongAdder bufferWaitNanos = new LongAdder();
+
+    /**
+     * @return number of non-empty chunks read from input streams
+     */
+    public long getChunksRead() {
+        return chunksRead.sum();
+    }
+    
+    /**
+     * @return number of bytes read from input streams
+     */
+    public long getBytesRead() {
+        return bytesRead.sum();
+    }
+    
+    /**
+     * Ratio of bytes read to capacity of the buffers they were read into. Low ratio indicates that the stream
+     * returns little data per read and parsing is dominated by per chunk overhead, in which case read 
+     * coalescing should be considered.
+     * @return fill ratio between 0 and 1, or 0 if nothing was read
+     */
+    public double getFillRatio() {
+        long capacity = bufferCapacity.sum();
+        return capacity == 0 ? 0 : (double) bytesRead.sum() / capacity;
+    }
+
+    /**
+     * @return number of times parser had to wait for read-ahead thread to supply next chunk
+     */
+    public long getStalls() {
+        return stalls.sum();
+    }
+
+    /**
+     * @param unit - time unit of the result
+     * @return total time parser spent waiting for read-ahead thread
+     */
+    public long getStallTime(TimeUnit unit) {
+        return unit.convert(stallNanos.sum(), TimeUnit.NANOSECONDS);
+    }
+    
+    /**
+     * @return number of pooled buffers currently taken by the readers and not yet released by the parser
+     */
+    public long getBuffersInFlight() {
+        return buffersInFlight.get();
+    }
+    
+    /**
+     * @return highest number of pooled buffers in flight at the same time
+     */
+    public long getPeakBuffersInFlight() {
+        return peakBuffersInFlight.get();
+    }
+    
+    /**
+     * @return number of times reader had to wait for a buffer, as limit of buffers in flight was reached
+     */
+    public long getBufferWaits() {
+        return bufferWaits.sum();
+    }
+    
+    /**
+     * @param unit - time unit of the result
+     * @return total time readers spent waiting for buffers
+     */
+    public long getBufferWaitTime(TimeUnit unit) {
+        return unit.convert(bufferWaitNanos.sum(), TimeUnit.NANOSECONDS);
+    }
+    
+    void onChunkRead(int bytes, int capacity) {
+        chunksRead.increment();
+        bytesRead.add(bytes);
+        bufferCapacity.add(capacity);
+    }
+
+    void onStall(long nanos) {
+        stalls.increment();
+        stallNanos.add(nanos);
+    }
+    
+    void onBufferTaken() {
+        long inFlight = buffersInFlight.incrementAndGet();
+        peakBuffersInFlight.accumulateAndGet(inFlight, Math::max);
+    }
+    
+    void onBufferHandedBack() {
+        buffersInFlight.decrementAndGet();
+    }
+    
+    void onBufferWait(long nanos) {
+        bufferWaits.increment();
+        bufferWaitNanos.add(nanos);
+    }
+
+    @Override
+    public String toString() {
+        return "IOStatistics [chunksRead=" + getChunksRead() + ", fillRatio=" + getFillRatio() + ", stalls=" + getStalls() 
+            + ", stallTimeMs=" + getStallTime(TimeUnit.MILLISECONDS) + ", peakBuffersInFlight=" + getPeakBuffersInFlight() 
+            + ", bufferWaits=" + getBufferWaits() + ", bufferWaitTimeMs=" + getBufferWaitTime(TimeUnit.MILLISECONDS) + "]";
+    }
+}
@@ -9,17 +9,42 @@ class InputStreamToByteArraySourceAdapter implements ByteArraySource {
 
     private final InputStream is;
     private final BufferPool pool;
+    private final long maxFillDelayNanos;
+    private final IOStatistics statistics;
     
     public InputStreamToByteArraySourceAdapter(InputStream is, BufferPool pool) {
+        this(is, pool, 0, new IOStatistics());
+    }
+    
+    /**
+     * @param maxFillDelayNanos - when positive, stream is read repeatedly until buffer is full or 
+     *  delay has passed since reading of the buffer started. Delay is checked between reads.
+     */
+    public InputStreamToByteArraySourceAdapter(InputStream is, BufferPool pool, long maxFillDelayNanos, IOStatistics statistics) {
         this.is = is;
         this.pool = pool;
+        this.maxFillDelayNanos = maxFillDelayNanos;
+        this.statistics = statistics;
     }
   
     @Override
     public ByteArrayChunk getNext() throws IOException {
         byte[] buffer = pool.getBuffer();
         int read = is.read(buffer);
-        boolean isEndReached = read == -1;
-        return new ByteArrayChunk(buffer, Math.max(0, read), isEndReached, pool::handBack);
+        if (read == -1) return new ByteArrayChunk(buffer, 0, true, pool::handBack);
+        boolean isEndReached = false;
+        if (maxFillDelayNanos > 0) {
+            long deadline = System.nanoTime() + maxFillDelayNanos;
+            while (read < buffer.length && System.nanoTime() - deadline < 0) {
+                int n = is.read(buffer, read, buffer.length - read);
+                if (n == -1) {
+                    isEndReached = true;
+                    break;
+                }
+                read += n;
+            }
+        }
+        statistics.onChunkRead(read, buffer.length);
+        return new ByteArrayChunk(buffer, read, isEndReached, pool::handBack);
     }
 }
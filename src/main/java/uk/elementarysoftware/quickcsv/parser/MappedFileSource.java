@@ -0,0 +1,71 @@
+package uk.elementarysoftware.quickcsv.parser;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Memory mapped file, parsed directly from mapped memory. Files larger than 2GB are mapped as several regions. 
+ * Region starts are 1GB apart, but each region extends up to 2GB, so that any slice up to 1GB long 
+ * is contained within the region where it starts.
+ */
+class MappedFileSource extends RandomAccessSource {
+    
+    private static final int REGION_SHIFT = 30;
+    private static final long REGION_SIZE = 1L << REGION_SHIFT;
+
+    private final long length;
+    private final MappedByteBuffer[] regions;
+
+    MappedFileSource(FileChannel channel, BufferPool pool) throws IOException {
+        super(pool);
+        this.length = channel.size();
+        this.regions = new MappedByteBuffer[(int) ((length + REGION_SIZE - 1) >>> REGION_SHIFT)];
+        for (int i = 0; i < regions.length; i++) {
+            long start = i * REGION_SIZE;
+            regions[i] = channel.map(MapMode.READ_ONLY, start, Math.min(Integer.MAX_VALUE, length - start));
+        }
+    }
+
+    /**
+     * Maps whole file, file is closed once mapped as mapping remains valid after that.
+     */
+    static MappedFileSource open(Path path, BufferPool pool) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new MappedFileSource(channel, pool);
+        }
+    }
+
+    @Override
+    long length() {
+        return length;
+    }
+
+    @Override
+    int read(long position, byte[] buffer, int offset, int length) {
+        int total = 0;
+        while (total < length && position + total < this.length) {
+            long current = position + total;
+            ByteBuffer region = regions[(int) (current >>> REGION_SHIFT)].duplicate();
+            region.position((int) (current & (REGION_SIZE - 1)));
+            int n = Math.min(length - total, region.remaining());
+            region.get(buffer, offset + total, n);
+            total += n;
+        }
+        return total;
+    }
+
+    @Override
+    ByteSlice slice(long position, int length, Charset charset) throws IOException {
+        MappedByteBuffer region = regions[(int) (position >>> REGION_SHIFT)];
+        int start = (int) (position & (REGION_SIZE - 1));
+        long end = Math.min(start + (long) length, start + this.length - position);
+        if (end > region.limit()) return super.slice(position, length, charset);
+        return new ByteBufferSlice(region, start, (int) end, charset);
+    }
+}
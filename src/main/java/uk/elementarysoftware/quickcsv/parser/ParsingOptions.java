@@ -0,0 +1,178 @@
+package uk.elementarysoftware.quickcsv.parser;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Options that control how input is read and parsed, see {@link uk.elementarysoftware.quickcsv.api.CSVParserBuilder}
+ * for description of individual options.
+ */
+public class ParsingOptions {
+    
+    /*
+     * Parser holds the tail of the previous buffer while reading the next one.
+     */
+    static final int MIN_BUFFERS_IN_FLIGHT = 2;
+    
+    private int readAheadDepth = 0;
+    private long maxFillDelayNanos = 0;
+    private IOStatistics statistics = new IOStatistics();
+    private long skipRecords = 0;
+    private long maxRecords = Long.MAX_VALUE;
+    private boolean isUnordered = false;
+    private ForkJoinPool executor = null;
+    private int parallelism = 0;
+    private int pipelineParsers = 0;
+    private boolean isVirtualThreads = false;
+    private boolean isLineBreaksInQuotes = false;
+    private int maxBuffersInFlight = 0;
+    
+    public ParsingOptions() {
+    }
+    
+    private ParsingOptions(ParsingOptions other) {
+        this.readAheadDepth = other.readAheadDepth;
+        this.maxFillDelayNanos = other.maxFillDelayNanos;
+        this.statistics = other.statistics;
+        this.skipRecords = other.skipRecords;
+        this.maxRecords = other.maxRecords;
+        this.isUnordered = other.isUnordered;
+        this.executor = other.executor;
+        this.parallelism = other.parallelism;
+        this.pipelineParsers = other.pipelineParsers;
+        this.isVirtualThreads = other.isVirtualThreads;
+        this.isLineBreaksInQuotes = other.isLineBreaksInQuotes;
+        this.maxBuffersInFlight = other.maxBuffersInFlight;
+    }
+    
+    public ParsingOptions withReadAhead(int depth) {
+        if (depth < 0) throw new IllegalArgumentException("Read-ahead depth should not be negative: " + depth);
+        this.readAheadDepth = depth;
+        return this;
+    }
+    
+    public ParsingOptions withReadCoalescing(long maxDelay, TimeUnit unit) {
+        if (maxDelay < 0) throw new IllegalArgumentException("Delay should not be negative: " + maxDelay);
+        this.maxFillDelayNanos = unit.toNanos(maxDelay);
+        return this;
+    }
+    
+    public ParsingOptions withStatistics(IOStatistics statistics) {
+        this.statistics = statistics;
+        return this;
+    }
+    
+    public ParsingOptions withSkipRecords(long n) {
+        if (n < 0) throw new IllegalArgumentException("Number of records to skip should not be negative: " + n);
+        this.skipRecords = n;
+        return this;
+    }
+    
+    public ParsingOptions withMaxRecords(long n) {
+        if (n < 0) throw new IllegalArgumentException("Maximum number of records should not be negative: " + n);
+        this.maxRecords = n;
+        return this;
+    }
+    
+    public ParsingOptions withUnordered(boolean isUnordered) {
+        this.isUnordered = isUnordered;
+        return this;
+    }
+    
+    public ParsingOptions withExecutor(ForkJoinPool executor) {
+        this.executor = executor;
+        this.parallelism = 0;
+        return this;
+    }
+    
+    public ParsingOptions withParallelism(int parallelism) {
+        if (parallelism <= 0) throw new IllegalArgumentException("Parallelism should be positive: " + parallelism);
+        this.parallelism = parallelism;
+        this.executor = null;
+        return this;
+    }
+    
+    public ParsingOptions withPipeline(int nParsers) {
+        if (nParsers < 0) throw new IllegalArgumentException("Number of parsing threads should not be negative: " + nParsers);
+        this.pipelineParsers = nParsers;
+        return this;
+    }
+    
+    public ParsingOptions withVirtualThreads(boolean isVirtualThreads) {
+        this.isVirtualThreads = isVirtualThreads;
+        return this;
+    }
+    
+    public ParsingOptions withLineBreaksInQuotes(boolean isLineBreaksInQuotes) {
+        this.isLineBreaksInQuotes = isLineBreaksInQuotes;
+        return this;
+    }
+    
+    public ParsingOptions withMaxBuffersInFlight(int maxBuffers) {
+        if (maxBuffers != 0 && maxBuffers < MIN_BUFFERS_IN_FLIGHT) {
+            throw new IllegalArgumentException("Limit of buffers in flight should be at least " + MIN_BUFFERS_IN_FLIGHT + ": " + maxBuffers);
+        }
+        this.maxBuffersInFlight = maxBuffers;
+        return this;
+    }
+    
+    public ParsingOptions copy() {
+        return new ParsingOptions(this);
+    }
+
+    int getReadAheadDepth() {
+        return readAheadDepth;
+    }
+
+    long getMaxFillDelayNanos() {
+        return maxFillDelayNanos;
+    }
+
+    IOStatistics getStatistics() {
+        return statistics;
+    }
+
+    long getSkipRecords() {
+        return skipRecords;
+    }
+    
+    long getMaxRecords() {
+        return maxRecords;
+    }
+    
+    boolean isUnordered() {
+        return isUnordered;
+    }
+    
+    ForkJoinPool getExecutor() {
+        return executor;
+    }
+    
+    int getParallelism() {
+        return parallelism;
+    }
+    
+    int getPipelineParsers() {
+        return pipelineParsers;
+    }
+    
+    boolean isVirtualThreads() {
+        return isVirtualThreads;
+    }
+    
+    boolean isLineBreaksInQuotes() {
+        return isLineBreaksInQuotes;
+    }
+    
+    int getMaxBuffersInFlight() {
+        return maxBuffersInFlight;
+    }
+    
+    /*
+     * Number of threads parsing is expected to run on.
+     */
+    int getTargetParallelism() {
+        if (executor != null) return executor.getParallelism();
+        return parallelism > 0 ? parallelism : ForkJoinPool.getCommonPoolParallelism();
+    }
+}
@@ -0,0 +1,228 @@
+package uk.elementarysoftware.quickcsv.parser;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Staged parsing of sequential source. Reader thread reads chunks, joins lines broken between them and numbers
+ * chunks in source order. Parsing threads take whole chunks and map their records, while consuming thread
+ * takes parsed chunks by number, so records are returned in source order. Number of chunks in flight is limited,
+ * so memory use depends neither on source size nor on speed of the consumer.
+ */
+class PipelinedSpliterator<T> implements Spliterator<T> {
+
+    private static final Object END = new Object();
+
+    private final Supplier<Spliterator<T>> chunks;
+    private final Runnable onCancel;
+    private final int nParsers;
+    private final int capacity;
+    private final int characteristics;
+    private final boolean isVirtual;
+
+    private final BlockingQueue<Object> parseQueue; //numbered chunks or END
+    private final AtomicReferenceArray<Object> parsed; //parsed chunks or failures, by number modulo capacity
+    private final Semaphore inFlight;
+    private final List<Thread> threads = new ArrayList<>();
+
+    private volatile long chunkCount = Long.MAX_VALUE; //known once source is exhausted
+    private volatile Thread consumer = null;
+    private volatile boolean isClosed = false;
+
+    private long nextChunk = 0;
+    private List<T> current = Collections.emptyList();
+    private int currentIndex = 0;
+
+    /**
+     * @param chunks - returns records of the next chunk of the source or null when source is exhausted
+     * @param onCancel - cancels parsing and closes the source
+     * @param nParsers - number of parsing threads
+     * @param isVirtual - run stages on virtual threads if available
+     */
+    PipelinedSpliterator(Supplier<Spliterator<T>> chunks, Runnable onCancel, int nParsers, int characteristics, 
+            boolean isVirtual) {
+        this.chunks = chunks;
+        this.onCancel = onCancel;
+        this.nParsers = nParsers;
+        this.capacity = 2 * nParsers;
+        this.characteristics = characteristics;
+        this.isVirtual = isVirtual;
+        this.parseQueue = new ArrayBlockingQueue<>(capacity + nParsers);
+        this.parsed = new AtomicReferenceArray<>(capacity);
+        this.inFlight = new Semaphore(capacity);
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        while (currentIndex == current.size()) {
+            if (!nextParsedChunk()) return false;
+        }
+        action.accept(current.get(currentIndex++));
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private boolean nextParsedChunk() {
+        if (threads.isEmpty()) start();
+        this.consumer = Thread.currentThread();
+        int slot = (int) (nextChunk % capacity);
+        Object value;
+        while ((value = parsed.get(slot)) == null) {
+            if (nextChunk >= chunkCount || isClosed) {
+                this.current = Collections.emptyList();
+                return false;
+            }
+            if (Thread.currentThread().isInterrupted()) {
+                close();
+                throw new RuntimeException(new InterruptedException());
+            }
+            LockSupport.park(this);
+        }
+        parsed.set(slot, null);
+        nextChunk++;
+        inFlight.release();
+        if (value instanceof Failure) {
+            close();
+            Throwable e = ((Failure) value).cause;
+            if (e instanceof RuntimeException) throw (RuntimeException) e;
+            if (e instanceof Error) throw (Error) e;
+            throw new RuntimeException(e);
+        }
+        this.current = (List<T>) value;
+        this.currentIndex = 0;
+        return true;
+    }
+
+    private void start() {
+        threads.add(Threads.newThread(this::read, "quick-csv-pipeline-reader", isVirtual));
+        for (int i = 0; i < nParsers; i++) {
+            threads.add(Threads.newThread(this::parse, "quick-csv-pipeline-parser-" + i, isVirtual));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+    }
+
+    private void read() {
+        long number = 0;
+        try {
+            while (!isClosed) {
+                inFlight.acquire();
+                Spliterator<T> records = chunks.get();
+                if (records == null) break;
+                try {
+                    parseQueue.put(new NumberedChunk<>(number, records));
+                } catch (InterruptedException e) {
+                    release(records);
+                    return;
+                }
+                if (isClosed) drainParseQueue(); //chunk could be added after queue was drained on close
+                number++;
+            }
+        } catch (InterruptedException e) {
+            return; //closed
+        } catch (Throwable e) {
+            publish(number++, new Failure(e));
+        }
+        for (int i = 0; i < nParsers; i++) {
+            parseQueue.offer(END);
+        }
+        this.chunkCount = number;
+        LockSupport.unpark(consumer);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void parse() {
+        try {
+            while (true) {
+                Object next = parseQueue.take();
+                if (next == END) return;
+                NumberedChunk<T> chunk = (NumberedChunk<T>) next;
+                List<T> records = new ArrayList<>();
+                try {
+                    chunk.records.forEachRemaining(records::add);
+                    publish(chunk.number, records);
+                } catch (Throwable e) {
+                    publish(chunk.number, new Failure(e));
+                }
+            }
+        } catch (InterruptedException e) {
+            //closed
+        }
+    }
+
+    private void publish(long number, Object value) {
+        parsed.set((int) (number % capacity), value);
+        LockSupport.unpark(consumer);
+    }
+
+    /*
+     * Parsing is cancelled before records are traversed, so that traversal only releases the chunk.
+     */
+    private static void release(Spliterator<?> records) {
+        records.tryAdvance(r -> {});
+    }
+
+    /**
+     * Stops all stages, closes the source and releases chunks that were not parsed.
+     */
+    void close() {
+        if (isClosed) return;
+        this.isClosed = true;
+        onCancel.run();
+        for (Thread thread : threads) {
+            thread.interrupt();
+        }
+        drainParseQueue();
+    }
+    
+    @SuppressWarnings("unchecked")
+    private void drainParseQueue() {
+        Object next;
+        while ((next = parseQueue.poll()) != null) {
+            if (next != END) release(((NumberedChunk<T>) next).records);
+        }
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        return null;
+    }
+
+    @Override
+    public long estimateSize() {
+        return Long.MAX_VALUE;
+    }
+
+    @Override
+    public int characteristics() {
+        return characteristics;
+    }
+
+    private static class NumberedChunk<T> {
+        final long number;
+        final Spliterator<T> records;
+
+        NumberedChunk(long number, Spliterator<T> records) {
+            this.number = number;
+            this.records = records;
+        }
+    }
+
+    private static class Failure {
+        final Throwable cause;
+
+        Failure(Throwable cause) {
+            this.cause = cause;
+        }
+    }
+}
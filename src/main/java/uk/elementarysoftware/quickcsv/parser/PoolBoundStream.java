@@ -0,0 +1,108 @@
+package uk.elementarysoftware.quickcsv.parser;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.BaseStream;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Binds stream to fork join pool, so that parallel work runs in that pool rather than in the common pool.
+ * Parallel streams fork their tasks into the pool of the thread that runs terminal operation, so terminal operations
+ * are submitted to the pool and awaited by the calling thread. Streams derived by intermediate operations,
+ * including primitive streams, are bound to the same pool.
+ * Iterator and spliterator are traversed by the calling thread.
+ */
+final class PoolBoundStream implements InvocationHandler {
+
+    private static final Class<?>[] STREAM_TYPES = new Class<?>[] {Stream.class, IntStream.class, LongStream.class, DoubleStream.class};
+
+    private final BaseStream<?, ?> delegate;
+    private final ForkJoinPool pool;
+    private final boolean isOwned;
+
+    private PoolBoundStream(BaseStream<?, ?> delegate, ForkJoinPool pool, boolean isOwned) {
+        this.delegate = delegate;
+        this.pool = pool;
+        this.isOwned = isOwned;
+    }
+
+    /**
+     * @param isOwned - pool is created for this stream only and is shut down once terminal operation completes
+     *  or stream is closed
+     */
+    @SuppressWarnings("unchecked")
+    static <T> Stream<T> bind(Stream<T> stream, ForkJoinPool pool, boolean isOwned) {
+        if (isOwned) stream = stream.onClose(pool::shutdown);
+        return (Stream<T>) wrap(stream, pool, isOwned);
+    }
+
+    private static Object wrap(BaseStream<?, ?> stream, ForkJoinPool pool, boolean isOwned) {
+        for (Class<?> type : STREAM_TYPES) {
+            if (type.isInstance(stream)) {
+                return Proxy.newProxyInstance(PoolBoundStream.class.getClassLoader(), new Class<?>[] {type},
+                        new PoolBoundStream(stream, pool, isOwned));
+            }
+        }
+        throw new IllegalArgumentException("Unsupported stream type: " + stream.getClass());
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        if (method.getDeclaringClass() == Object.class) {
+            switch (method.getName()) {
+                case "equals": return proxy == args[0];
+                case "hashCode": return System.identityHashCode(proxy);
+                default: return delegate.toString();
+            }
+        }
+        if (BaseStream.class.isAssignableFrom(method.getReturnType())) { //intermediate operation
+            return wrap((BaseStream<?, ?>) invokeOnDelegate(method, args), pool, isOwned);
+        }
+        switch (method.getName()) {
+            case "iterator":
+            case "spliterator":
+            case "isParallel":
+            case "close":
+                return invokeOnDelegate(method, args);
+            default:
+                return runTerminal(method, args);
+        }
+    }
+
+    /*
+     * Failure is passed back as is, rather than being wrapped by the pool.
+     */
+    private Object runTerminal(Method method, Object[] args) throws Throwable {
+        if (ForkJoinTask.getPool() == pool) return invokeOnDelegate(method, args);
+        Throwable[] failure = new Throwable[1];
+        try {
+            Object result = pool.invoke(ForkJoinTask.adapt(() -> {
+                try {
+                    return invokeOnDelegate(method, args);
+                } catch (Throwable e) {
+                    failure[0] = e;
+                    return null;
+                }
+            }));
+            if (failure[0] != null) throw failure[0];
+            return result;
+        } finally {
+            if (isOwned) pool.shutdown();
+        }
+    }
+
+    private Object invokeOnDelegate(Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(delegate, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
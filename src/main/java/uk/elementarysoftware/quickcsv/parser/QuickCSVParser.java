@@ -1,24 +1,47 @@
 package uk.elementarysoftware.quickcsv.parser;
 
+import java.io.BufferedInputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.Spliterator;
 import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
+import java.util.zip.GZIPInputStream;
 
 import uk.elementarysoftware.quickcsv.api.ByteArraySource;
 import uk.elementarysoftware.quickcsv.api.ByteArraySource.ByteArrayChunk;
+import uk.elementarysoftware.quickcsv.api.CSVCursor;
 import uk.elementarysoftware.quickcsv.api.CSVParser;
 import uk.elementarysoftware.quickcsv.api.CSVParserBuilder.CSVFileMetadata;
 import uk.elementarysoftware.quickcsv.functional.Pair;
 import uk.elementarysoftware.quickcsv.api.CSVRecord;
 import uk.elementarysoftware.quickcsv.api.CSVRecordWithHeader;
 import uk.elementarysoftware.quickcsv.api.Field;
+import uk.elementarysoftware.quickcsv.api.RecordHandler;
+import uk.elementarysoftware.quickcsv.api.RowIndex;
+import uk.elementarysoftware.quickcsv.ioutils.IOUtils;
 
 public class QuickCSVParser<T, K extends Enum<K>> implements CSVParser<T> {
 
@@ -27,22 +50,84 @@ public class QuickCSVParser<T, K extends Enum<K>> implements CSVParser<T> {
     private final Function<CSVRecord, T> mapper;
     private final Optional<FieldSubsetView<K>> fieldSubsetView;
     private final Charset charset;
+    private final ParsingOptions options;
+    
+    private final int characteristics;
+    private final BufferPool sharedPool; //used by sequential sources with virtual threads
+    private final AtomicReference<QuoteParity> lastQuoteParity; //kept between range calls
+    private final Optional<Character> lineBreakQuote; //quote that can enclose line breaks, if they are allowed
+    private final SliceParser<T, K> sliceParser;
+    
+    private static final int RECORD_SAMPLE_SIZE = 1 << 16;
+    private static final int MAX_INITIAL_BATCH_CAPACITY = 1 << 16;
 
     public QuickCSVParser(int bufferSize, CSVFileMetadata metadata, Function<CSVRecordWithHeader<K>, T> mapper, 
             FieldSubsetView<K> fieldSubsetView, Charset charset) {
+        this(bufferSize, metadata, mapper, fieldSubsetView, charset, new ParsingOptions());
+    }
+    
+    public QuickCSVParser(int bufferSize, CSVFileMetadata metadata, Function<CSVRecordWithHeader<K>, T> mapper, 
+            FieldSubsetView<K> fieldSubsetView, Charset charset, ParsingOptions options) {
         this.metadata = metadata;
         this.bufferSize = bufferSize;
         this.mapper = cast(mapper);
         this.fieldSubsetView = Optional.of(fieldSubsetView);
         this.charset = charset;
+        this.options = options;
+        this.characteristics = (options.isUnordered() ? 0 : Spliterator.ORDERED) | Spliterator.NONNULL | Spliterator.IMMUTABLE;
+        this.sharedPool = new BufferPool(bufferSize, true, 0, options.getStatistics());
+        this.lastQuoteParity = new AtomicReference<>();
+        this.lineBreakQuote = options.isLineBreaksInQuotes() ? metadata.quote : Optional.empty();
+        this.sliceParser = this::recordSpliterator;
     }
     
     public QuickCSVParser(int bufferSize, CSVFileMetadata metadata, Function<CSVRecord, T> mapper, Charset charset) {
+        this(bufferSize, metadata, mapper, charset, new ParsingOptions());
+    }
+    
+    public QuickCSVParser(int bufferSize, CSVFileMetadata metadata, Function<CSVRecord, T> mapper, Charset charset, 
+            ParsingOptions options) {
         this.metadata = metadata;
         this.bufferSize = bufferSize;
         this.mapper = mapper;
         this.fieldSubsetView = Optional.empty();
         this.charset = charset;
+        this.options = options;
+        this.characteristics = (options.isUnordered() ? 0 : Spliterator.ORDERED) | Spliterator.NONNULL | Spliterator.IMMUTABLE;
+        this.sharedPool = new BufferPool(bufferSize, true, 0, options.getStatistics());
+        this.lastQuoteParity = new AtomicReference<>();
+        this.lineBreakQuote = options.isLineBreaksInQuotes() ? metadata.quote : Optional.empty();
+        this.sliceParser = this::recordSpliterator;
+    }
+    
+    /*
+     * Parser that shares configuration and buffers of the other parser, but produces different elements from each slice.
+     */
+    private QuickCSVParser(QuickCSVParser<?, K> other, SliceParser<T, K> sliceParser) {
+        this(other, other.options, sliceParser);
+    }
+    
+    private QuickCSVParser(QuickCSVParser<?, K> other, ParsingOptions options, SliceParser<T, K> sliceParser) {
+        this.metadata = other.metadata;
+        this.bufferSize = other.bufferSize;
+        this.mapper = null;
+        this.fieldSubsetView = other.fieldSubsetView;
+        this.charset = other.charset;
+        this.options = options;
+        this.characteristics = other.characteristics;
+        this.sharedPool = other.sharedPool;
+        this.lastQuoteParity = other.lastQuoteParity;
+        this.lineBreakQuote = other.lineBreakQuote;
+        this.sliceParser = sliceParser;
+    }
+    
+    /**
+     * Creates elements of the resulting stream from record aligned slice.
+     */
+    @FunctionalInterface
+    interface SliceParser<R, K extends Enum<K>> {
+        Spliterator<R> parse(ByteSlice slice, Optional<FieldSubsetView<K>> view, long maxRecords, AtomicBoolean cancelled, 
+                double averageRecordLength);
     }
     
     @SuppressWarnings("unchecked")
@@ -53,67 +138,500 @@ public class QuickCSVParser<T, K extends Enum<K>> implements CSVParser<T> {
     
     @Override
     public Stream<T> parse(InputStream is) {
-        BufferPool pool = new BufferPool(bufferSize);
-        return parse(new InputStreamToByteArraySourceAdapter(is, pool));
+        return parse(is, options.getMaxFillDelayNanos());
+    }
+    
+    private Stream<T> parse(InputStream is, long maxFillDelayNanos) {
+        BufferPool pool = sequentialPool();
+        return parseSequential(new InputStreamToByteArraySourceAdapter(is, pool, maxFillDelayNanos, options.getStatistics()));
+    }
+    
+    @Override
+    public Stream<T> parse(ReadableByteChannel channel) {
+        BufferPool pool = sequentialPool();
+        return parseSequential(new ReadableByteChannelSource(channel, pool, options.getMaxFillDelayNanos(), options.getStatistics()));
+    }
+    
+    private Stream<T> parseSequential(ByteArraySource source) {
+        if (options.isVirtualThreads()) {
+            int depth = Math.max(options.getReadAheadDepth(), 2);
+            return parse(new ReadAheadSource(source, depth, options.getStatistics(), true));
+        }
+        if (options.getReadAheadDepth() > 0) {
+            return parse(new ReadAheadSource(source, options.getReadAheadDepth(), options.getStatistics()));
+        }
+        return parse(source);
+    }
+    
+    /*
+     * Shared pool is not limited, as limit applies to each parse.
+     */
+    private BufferPool sequentialPool() {
+        return options.isVirtualThreads() && options.getMaxBuffersInFlight() == 0 ? sharedPool : newPool();
+    }
+    
+    private BufferPool newPool() {
+        return new BufferPool(bufferSize, false, options.getMaxBuffersInFlight(), options.getStatistics());
     }
     
+    @Override
+    public Stream<T> parse(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            return parse(new MappedFileSource(channel, newPool())).onClose(() -> IOUtils.closeQuietly(channel));
+        } catch (IOException | RuntimeException e) {
+            IOUtils.closeQuietly(channel);
+            throw e;
+        }
+    }
+    
+    @Override
+    public Stream<T> parse(Path path, long startOffset, long endOffset) throws IOException {
+        if (startOffset < 0 || endOffset < startOffset) {
+            throw new IllegalArgumentException("Invalid range ["+startOffset+", "+endOffset+")");
+        }
+        MappedFileSource source = MappedFileSource.open(path, newPool());
+        long length = source.length();
+        QuoteParity parity = lineBreakQuote.isPresent() ? quoteParity(path, length) : null;
+        long start = nextRecordStart(source, parity, Math.min(startOffset, length), length);
+        long end = nextRecordStart(source, parity, Math.min(endOffset, length), length);
+        AtomicBoolean cancelled = new AtomicBoolean(false);
+        RangeSplittingSpliterator spliterator = new RangeSplittingSpliterator(source, start, end, this::readHeader, cancelled);
+        spliterator.quoteParity = parity;
+        return stream(spliterator).onClose(() -> cancelled.set(true));
+    }
+    
+    @Override
+    public Stream<T> parse(Path path, RowIndex index, long fromRow, long toRow) throws IOException {
+        if (fromRow < 0 || toRow < fromRow) {
+            throw new IllegalArgumentException("Invalid rows ["+fromRow+", "+toRow+")");
+        }
+        if (!(index instanceof SparseRowIndex)) {
+            throw new IllegalArgumentException("Index should be built by RowIndex.build or RowIndex.load");
+        }
+        SparseRowIndex sparseIndex = (SparseRowIndex) index;
+        MappedFileSource source = MappedFileSource.open(path, newPool());
+        long headerRows = fieldSubsetView.isPresent() ? countHeaderRows(source) : 0;
+        long start = sparseIndex.offsetOf(source, Math.min(fromRow, index.getRowCount()) + headerRows);
+        long end = sparseIndex.offsetOf(source, Math.min(toRow, index.getRowCount()) + headerRows);
+        AtomicBoolean cancelled = new AtomicBoolean(false);
+        return stream(new RangeSplittingSpliterator(source, start, end, this::readHeader, cancelled))
+                .onClose(() -> cancelled.set(true));
+    }
+    
+    /*
+     * Quote state of the last file parsed by range is kept, so that further ranges of the same file only scan 
+     * blocks that were not scanned yet.
+     */
+    private QuoteParity quoteParity(Path path, long length) throws IOException {
+        Object fileKey = Arrays.asList(path.toRealPath(), length, Files.getLastModifiedTime(path));
+        QuoteParity parity = lastQuoteParity.get();
+        if (parity == null || !parity.isFor(fileKey)) {
+            parity = new QuoteParity(length, lineBreakQuote.get(), fileKey);
+            lastQuoteParity.set(parity);
+        }
+        return parity;
+    }
+    
+    private long nextRecordStart(RandomAccessSource source, QuoteParity parity, long position, long limit) throws IOException {
+        return parity == null ? source.nextRecordStart(position, limit) : parity.nextRecordStart(source, position, limit);
+    }
+    
+    /*
+     * Line breaks within quoted fields are skipped if they are allowed.
+     */
+    private long skipLines(ByteSlice slice, long n) {
+        return lineBreakQuote.isPresent() ? slice.skipLines(n, lineBreakQuote.get()) : slice.skipLines(n);
+    }
+    
+    private long skipRecords(RandomAccessSource source, long position, long n, long limit) throws IOException {
+        return lineBreakQuote.isPresent() ? 
+                source.skipRecords(position, n, limit, lineBreakQuote.get()) : source.skipRecords(position, n, limit);
+    }
+    
+    /*
+     * Preceding part starts at record start and is joined with the slice before parsing.
+     */
+    private Pair<ByteSlice, ByteSlice> splitOnLastLineEnd(ByteSlice slice, ByteSlice precedingPart) {
+        if (!lineBreakQuote.isPresent()) return slice.splitOnLastLineEnd();
+        char quote = lineBreakQuote.get();
+        return slice.splitOnLastLineEnd(quote, ((SingleByteSlice) precedingPart).isInQuotesAtEnd(quote));
+    }
+    
+    /*
+     * Rows of the index are counted from the start of the file, while rows of the stream follow the header.
+     */
+    private long countHeaderRows(RandomAccessSource source) throws IOException {
+        SingleByteSlice slice = headerWindow(source);
+        readHeader(slice);
+        long rows = 0;
+        boolean isPreviousEOL = true;
+        for (int i = 0; i < slice.currentIndex; i++) {
+            boolean isEOL = slice.buffer[i] == ByteSlice.CR || slice.buffer[i] == ByteSlice.LF;
+            if (isPreviousEOL && !isEOL) rows++;
+            isPreviousEOL = isEOL;
+        }
+        return rows;
+    }
+    
+    @Override
+    public Stream<T> parse(List<Path> paths) throws IOException {
+        long[] offsets = new long[paths.size() + 1];
+        for (int i = 0; i < paths.size(); i++) {
+            offsets[i + 1] = offsets[i] + Files.size(paths.get(i));
+        }
+        AtomicBoolean cancelled = new AtomicBoolean(false);
+        return stream(new MultiFileSpliterator(paths, offsets, newPool(), cancelled))
+                .onClose(() -> cancelled.set(true));
+    }
+    
+    @Override
+    public Stream<T> parse(FileChannel channel) throws IOException {
+        return parse(new FileChannelSource(channel, newPool()));
+    }
+    
+    @Override
+    public Stream<T> parseGzip(InputStream is) throws IOException {
+        InputStream bis = new BufferedInputStream(is);
+        byte[] header = new byte[BgzfBlockSource.HEADER_SIZE];
+        bis.mark(header.length);
+        int length = 0;
+        while (length < header.length) {
+            int read = bis.read(header, length, header.length - length);
+            if (read == -1) break;
+            length += read;
+        }
+        bis.reset();
+        if (BgzfBlockSource.isBgzf(header, length)) {
+            return parseBgzf(bis);
+        } else {
+            //inflater returns short reads regardless of data availability, so buffers are always filled
+            return parse(new GZIPInputStream(bis), Long.MAX_VALUE);
+        }
+    }
+    
+    /*
+     * Blocks are inflated in the pool parsing runs in, so pool of the parse is created here and passed on 
+     * to the parser as its executor.
+     */
+    private Stream<T> parseBgzf(InputStream is) {
+        if (options.getParallelism() > 0) {
+            ForkJoinPool pool = new ForkJoinPool(options.getParallelism());
+            QuickCSVParser<T, K> parser = new QuickCSVParser<>(this, options.copy().withExecutor(pool), sliceParser);
+            return PoolBoundStream.bind(parser.parseBgzf(is), pool, true);
+        }
+        ForkJoinPool executor = options.getExecutor() != null ? options.getExecutor() : ForkJoinPool.commonPool();
+        return parseSequential(new BgzfBlockSource(is, sequentialPool(), executor));
+    }
+    
+    @Override
+    public Stream<List<T>> parseBatches(InputStream is) {
+        return batchParser().parse(is);
+    }
+    
+    @Override
+    public Stream<List<T>> parseBatches(Path path) throws IOException {
+        return batchParser().parse(path);
+    }
+    
+    @Override
+    public Stream<List<T>> parseBatches(ByteArraySource bas) {
+        return batchParser().parse(bas);
+    }
+    
+    @Override
+    public void forEachRecord(InputStream is, RecordHandler handler) {
+        forEachRecord(handlingParser(handler).parse(is));
+    }
+    
+    @Override
+    public void forEachRecord(Path path, RecordHandler handler) throws IOException {
+        forEachRecord(handlingParser(handler).parse(path));
+    }
+    
+    @Override
+    public void forEachRecord(ByteArraySource bas, RecordHandler handler) {
+        forEachRecord(handlingParser(handler).parse(bas));
+    }
+    
+    /*
+     * Handling parser produces no elements, so source spliterator is traversed directly instead of the stream.
+     */
+    private static void forEachRecord(Stream<Void> stream) {
+        try (Stream<Void> s = stream) {
+            s.spliterator().forEachRemaining(v -> {});
+        }
+    }
+    
+    /*
+     * Pipeline is disabled, as handler is called on the calling thread.
+     */
+    private QuickCSVParser<Void, K> handlingParser(RecordHandler handler) {
+        return new QuickCSVParser<>(this, options.copy().withPipeline(0), (slice, view, maxRecords, cancelled, averageRecordLength) -> 
+                new HandlingSpliterator(recordSpliterator(slice, view, maxRecords, cancelled, averageRecordLength), handler));
+    }
+    
+    @Override
+    public <A> A parseAndReduce(InputStream is, Supplier<A> accumulatorFactory, BiConsumer<A, CSVRecord> accumulate, 
+            BinaryOperator<A> merge) {
+        return reduce(reducingParser(accumulatorFactory, accumulate).parse(is), accumulatorFactory, merge);
+    }
+    
+    @Override
+    public <A> A parseAndReduce(Path path, Supplier<A> accumulatorFactory, BiConsumer<A, CSVRecord> accumulate, 
+            BinaryOperator<A> merge) throws IOException {
+        return reduce(reducingParser(accumulatorFactory, accumulate).parse(path), accumulatorFactory, merge);
+    }
+    
+    @Override
+    public <A> A parseAndReduce(ByteArraySource bas, Supplier<A> accumulatorFactory, BiConsumer<A, CSVRecord> accumulate, 
+            BinaryOperator<A> merge) {
+        return reduce(reducingParser(accumulatorFactory, accumulate).parse(bas), accumulatorFactory, merge);
+    }
+    
+    private static <A> A reduce(Stream<A> stream, Supplier<A> accumulatorFactory, BinaryOperator<A> merge) {
+        try (Stream<A> s = stream) {
+            return s.reduce(merge).orElseGet(accumulatorFactory);
+        }
+    }
+    
+    /*
+     * Reducing parser produces one accumulator per slice, on the thread that parses the slice.
+     */
+    private <A> QuickCSVParser<A, K> reducingParser(Supplier<A> accumulatorFactory, BiConsumer<A, CSVRecord> accumulate) {
+        return new QuickCSVParser<>(this, (slice, view, maxRecords, cancelled, averageRecordLength) -> 
+                new ReducingSpliterator<>(recordSpliterator(slice, view, maxRecords, cancelled, averageRecordLength), 
+                        accumulatorFactory, accumulate));
+    }
+    
+    @Override
+    public CSVCursor openCursor(InputStream is) {
+        return new RecordCursor(cursorParser().parse(is), charset);
+    }
+    
+    @Override
+    public CSVCursor openCursor(Path path) throws IOException {
+        return new RecordCursor(cursorParser().parse(path), charset);
+    }
+    
+    @Override
+    public CSVCursor openCursor(ByteArraySource bas) {
+        return new RecordCursor(cursorParser().parse(bas), charset);
+    }
+    
+    /*
+     * Cursor parser returns unparsed slices, fields of each record are then parsed by the cursor.
+     */
+    private QuickCSVParser<ByteSliceSpliterator, K> cursorParser() {
+        return new QuickCSVParser<>(this, options.copy().withPipeline(0), (slice, view, maxRecords, cancelled, averageRecordLength) -> 
+                Collections.singletonList(new ByteSliceSpliterator(slice, maxRecords, cancelled, 0)).spliterator());
+    }
+    
+    private QuickCSVParser<List<T>, K> batchParser() {
+        return new QuickCSVParser<>(this, (slice, view, maxRecords, cancelled, averageRecordLength) -> 
+                new BatchSpliterator<>(recordSpliterator(slice, view, maxRecords, cancelled, averageRecordLength)));
+    }
+    
+    @Override
+    public Stream<T> parse(byte[] data, int offset, int length) {
+        return parse(new ByteArrayRangeSource(data, offset, length, newPool()));
+    }
+    
+    @Override
+    public Stream<T> parse(ByteBuffer buffer) {
+        if (buffer.hasArray()) {
+            return parse(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+        }
+        return parse(new ByteBufferSource(buffer, newPool()));
+    }
+    
+    /**
+     * Parses the source, closing resulting stream cancels parsing, releases buffers that are still held and closes 
+     * the source. Cancellation is cooperative, so records already being processed are completed.
+     */
     @Override
     public Stream<T> parse(ByteArraySource bas) {
-        return StreamSupport.stream(new SplittingSpliterator(bas), true);
+        AtomicBoolean cancelled = new AtomicBoolean(false);
+        if (bas instanceof RandomAccessSource) {
+            Spliterator<T> spliterator = new RangeSplittingSpliterator((RandomAccessSource) bas, this::readHeader, cancelled);
+            return stream(spliterator).onClose(() -> {
+                cancelled.set(true);
+                closeQuietly(bas);
+            });
+        }
+        SplittingSpliterator spliterator = new SplittingSpliterator(bas, cancelled);
+        if (options.getPipelineParsers() > 0) {
+            PipelinedSpliterator<T> pipeline = new PipelinedSpliterator<>(spliterator::claimNext, spliterator::cancel, 
+                    options.getPipelineParsers(), characteristics, options.isVirtualThreads());
+            return StreamSupport.stream(pipeline, false).onClose(pipeline::close);
+        }
+        if (options.isVirtualThreads()) { //parsed by consuming thread, so that pool threads are not blocked on reads
+            return StreamSupport.stream(spliterator, false).onClose(spliterator::cancel);
+        }
+        Spliterator<T> root = options.isUnordered() ? 
+                new ClaimingSpliterator(spliterator, options.getTargetParallelism()) : spliterator;
+        return stream(root).onClose(spliterator::cancel);
+    }
+    
+    /*
+     * Parallel stream, bound to configured pool if any.
+     */
+    private Stream<T> stream(Spliterator<T> spliterator) {
+        Stream<T> stream = StreamSupport.stream(spliterator, true);
+        if (options.getParallelism() > 0) return PoolBoundStream.bind(stream, new ForkJoinPool(options.getParallelism()), true);
+        if (options.getExecutor() != null) return PoolBoundStream.bind(stream, options.getExecutor(), false);
+        return stream;
+    }
+    
+    static void closeQuietly(ByteArraySource source) {
+        try {
+            source.close();
+        } catch (IOException e) {
+            //ignore
+        }
     }
 
     class SplittingSpliterator implements Spliterator<T> {
         
         private final ByteArraySource bas;
+        private final AtomicBoolean cancelled;
         
         private ByteSlice prefix = ByteSlice.empty(); 
-        private boolean isEndReached = false;
+        private boolean isEndReached;
+        private long recordsToSkip = options.getSkipRecords();
+        private long recordsRemaining = options.getMaxRecords();
+        private double averageRecordLength = Double.NaN; //sampled from the first chunk
 
         private Spliterator<T> sequentialSplitterator = Spliterators.emptySpliterator();
+        
+        private final Object claimLock = new Object();
 
-        SplittingSpliterator(ByteArraySource bas) {
+        SplittingSpliterator(ByteArraySource bas, AtomicBoolean cancelled) {
             this.bas = bas;
+            this.cancelled = cancelled;
+            this.isEndReached = recordsRemaining == 0;
         }
 
         @Override
         public boolean tryAdvance(Consumer<? super T> action) { //usually only called in sequential mode
-            boolean advanced = sequentialSplitterator.tryAdvance(action);
-            if (advanced) return true;
-            if (isEndReached) return false;
-            ByteSlice nextSlice = nextSlice();
-            if (!nextSlice.hasMoreData()) return false;
-            this.sequentialSplitterator = sliceSpliterator(nextSlice);
-            return tryAdvance(action);
+            while (!sequentialSplitterator.tryAdvance(action)) { //slices can be empty, so they are looped over
+                if (isEndReached || cancelled.get()) return false;
+                this.sequentialSplitterator = nextSliceSpliterator();
+            }
+            return true;
+        }
+        
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            while (true) {
+                sequentialSplitterator.forEachRemaining(action);
+                if (isEndReached || cancelled.get()) return;
+                this.sequentialSplitterator = nextSliceSpliterator();
+            }
         }
 
         @Override
         public Spliterator<T> trySplit() {
-            if (isEndReached) return null;
-            ByteSlice nextSlice = nextSlice();
-            if (!nextSlice.hasMoreData()) return null;
-            return sliceSpliterator(nextSlice);
+            if (isEndReached || cancelled.get()) return null;
+            return nextSliceSpliterator();
         }
         
-        private ByteSlice nextSlice() {
+        /*
+         * Reads next slice on behalf of one of the claiming workers or pipeline reader, returns null when source is exhausted.
+         */
+        Spliterator<T> claimNext() {
+            synchronized (claimLock) {
+                if (isEndReached || cancelled.get()) return null;
+                return nextSliceSpliterator();
+            }
+        }
+        
+        /*
+         * Prefix is always released here, under the same lock splitting thread holds while it joins prefix 
+         * with the next chunk. Splitting thread that has read the chunk after cancellation only releases the chunk.
+         */
+        void cancel() {
+            cancelled.set(true);
+            closeQuietly(bas);
+            synchronized (this) {
+                prefix.decremenentUse();
+                this.prefix = ByteSlice.empty();
+            }
+        }
+        
+        /*
+         * Returns empty spliterator when all records of the next slice are skipped.
+         */
+        private Spliterator<T> nextSliceSpliterator() {
             ByteSlice bareSlice = nextBareSlice();
             bareSlice.incrementUse();
-            if (isEndReached) {
-                return ByteSlice.join(prefix, bareSlice);
-            } else {
-                Pair<ByteSlice, ByteSlice> sliced = bareSlice.splitOnLastLineEnd();
-                ByteSlice result = ByteSlice.join(prefix, sliced.first);
-                this.prefix = sliced.second;
+            synchronized (this) {
+                if (cancelled.get()) {
+                    bareSlice.decremenentUse();
+                    this.isEndReached = true;
+                    return Spliterators.emptySpliterator();
+                }
+                return nextSliceSpliterator(bareSlice);
+            }
+        }
+        
+        private Spliterator<T> nextSliceSpliterator(ByteSlice bareSlice) {
+            ByteSlice suffix = bareSlice;
+            ByteSlice nextPrefix = ByteSlice.empty();
+            if (!isEndReached) {
+                Pair<ByteSlice, ByteSlice> sliced = splitOnLastLineEnd(bareSlice, prefix);
+                if (sliced.first.size() == 0) { //short read ended within a record, it is carried on with the prefix
+                    ByteSlice joined = ((SingleByteSlice) prefix).append((SingleByteSlice) bareSlice);
+                    joined.incrementUse();
+                    prefix.decremenentUse();
+                    bareSlice.decremenentUse();
+                    this.prefix = joined;
+                    return Spliterators.emptySpliterator();
+                }
+                suffix = sliced.first;
+                nextPrefix = sliced.second;
                 bareSlice.incrementUse();
-                return result;
             }
+            long records = countRecords(prefix, suffix);
+            ByteSlice result = ByteSlice.join(prefix, suffix);
+            this.prefix = nextPrefix;
+            if (recordsToSkip > 0) {
+                long skipped = skipLines(result, recordsToSkip);
+                this.recordsToSkip -= skipped;
+                records -= skipped;
+            }
+            if (recordsRemaining != Long.MAX_VALUE) {
+                if (records >= recordsRemaining) { //limit is met, source is not read any further
+                    records = recordsRemaining;
+                    this.isEndReached = true;
+                    this.prefix.decremenentUse();
+                    this.prefix = ByteSlice.empty();
+                }
+                this.recordsRemaining -= records;
+            }
+            if (records == 0 || !result.hasMoreData()) {
+                result.decremenentUse();
+                return Spliterators.emptySpliterator();
+            }
+            return sliceSpliterator(result, fieldSubsetView, records, cancelled, averageRecordLength);
         }
-
+        
+        /*
+         * Counts records of joined slices up to the number still needed, positions of the slices are not changed.
+         */
+        private long countRecords(ByteSlice prefix, ByteSlice suffix) {
+            if (recordsRemaining == Long.MAX_VALUE) return Long.MAX_VALUE;
+            ByteSlice copy = ByteSlice.join(((SingleByteSlice) prefix).copy(), ((SingleByteSlice) suffix).copy());
+            return skipLines(copy, recordsToSkip + Math.min(recordsRemaining, Long.MAX_VALUE - recordsToSkip));
+        }
+        
         private ByteSlice nextBareSlice() {
             try {
                 ByteArrayChunk it = bas.getNext();
                 this.isEndReached = it.isLast();
-                ByteSlice slice = ByteSlice.wrap(it, charset);
+                SingleByteSlice slice = (SingleByteSlice) ByteSlice.wrap(it, charset);
                 if (fieldSubsetView.isPresent()) fieldSubsetView.get().onSlice(slice, metadata);
+                if (Double.isNaN(averageRecordLength)) this.averageRecordLength = slice.averageRecordLength(RECORD_SAMPLE_SIZE);
                 return slice;
             } catch (RuntimeException e) {
                 throw e;
@@ -124,41 +642,441 @@ public class QuickCSVParser<T, K extends Enum<K>> implements CSVParser<T> {
 
         @Override
         public long estimateSize() {
-           return Long.MAX_VALUE;
+           return Long.MAX_VALUE; //length of sequential source is not known
         }
 
         @Override
         public int characteristics() {
-            return ORDERED | NONNULL | IMMUTABLE;
+            return characteristics;
         }
     }
     
-    Spliterator<T> sliceSpliterator(ByteSlice slice) {
-        return fieldSubsetView.isPresent() ? new LensingByteSliceSpliterator(slice) : new ByteSliceSpliterator(slice);
+    /**
+     * Spliterator for unordered parsing of sequential source. Splitting does not read the source, it creates another 
+     * worker that shares the source, and each worker claims next slice from the source once it is done with previous one.
+     * Number of workers is limited, so that splitting stops once there are enough of them to keep the pool busy.
+     */
+    class ClaimingSpliterator implements Spliterator<T> {
+        
+        private final SplittingSpliterator source;
+        private final AtomicInteger workers;
+        private final int maxWorkers;
+        
+        private Spliterator<T> current = Spliterators.emptySpliterator();
+        
+        ClaimingSpliterator(SplittingSpliterator source, int parallelism) {
+            this(source, new AtomicInteger(1), Math.max(1, parallelism));
+        }
+        
+        private ClaimingSpliterator(SplittingSpliterator source, AtomicInteger workers, int maxWorkers) {
+            this.source = source;
+            this.workers = workers;
+            this.maxWorkers = maxWorkers;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            while (!current.tryAdvance(action)) {
+                Spliterator<T> next = source.claimNext();
+                if (next == null) return false;
+                this.current = next;
+            }
+            return true;
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            if (workers.incrementAndGet() > maxWorkers) {
+                workers.decrementAndGet();
+                return null;
+            }
+            return new ClaimingSpliterator(source, workers, maxWorkers);
+        }
+
+        @Override
+        public long estimateSize() {
+            return Long.MAX_VALUE;
+        }
+
+        @Override
+        public int characteristics() {
+            return characteristics;
+        }
+    }
+    
+    /**
+     * Spliterator over range of random access source. Splitting halves the range and moves split point forward
+     * to the next record start, so no sequential reading is involved. Each range is then read and parsed
+     * buffer by buffer.
+     */
+    class RangeSplittingSpliterator implements Spliterator<T> {
+        
+        private final RandomAccessSource source;
+        private final AtomicBoolean cancelled;
+        
+        private long position;
+        private long end;
+        private boolean isPrepared = true;
+        private double averageRecordLength;
+        private Optional<FieldSubsetView<K>> view;
+        private Function<ByteSlice, FieldSubsetView<K>> headerReader = null;
+        private boolean isTraversalStarted = false;
+        private ByteSlice lastSlice = null;
+        private QuoteParity quoteParity = null; //created on first split if line breaks in quotes are allowed
+        
+        private Spliterator<T> sequentialSplitterator = Spliterators.emptySpliterator();
+
+        /**
+         * @param headerReader - reads header from the first slice of the source and returns view to parse it with,
+         *  only used when parser has field subset view
+         */
+        RangeSplittingSpliterator(RandomAccessSource source, Function<ByteSlice, FieldSubsetView<K>> headerReader, 
+                AtomicBoolean cancelled) {
+            this(source, 0, source.length(), headerReader, cancelled);
+        }
+        
+        /**
+         * Spliterator over record aligned range of the source. Header is still read from the start of the source 
+         * and range start is moved past the header if they overlap.
+         */
+        RangeSplittingSpliterator(RandomAccessSource source, long start, long end, 
+                Function<ByteSlice, FieldSubsetView<K>> headerReader, AtomicBoolean cancelled) {
+            this(source, start, end, fieldSubsetView, cancelled, Double.NaN);
+            if (fieldSubsetView.isPresent()) this.headerReader = headerReader;
+            this.isPrepared = false;
+        }
+        
+        private RangeSplittingSpliterator(RandomAccessSource source, long start, long end, Optional<FieldSubsetView<K>> view, 
+                AtomicBoolean cancelled, double averageRecordLength) {
+            this.source = source;
+            this.cancelled = cancelled;
+            this.averageRecordLength = averageRecordLength;
+            this.position = start;
+            this.end = end;
+            this.view = view;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            isTraversalStarted = true;
+            if (!isPrepared) prepare();
+            while (!sequentialSplitterator.tryAdvance(action)) {
+                if (!advanceSlice()) return false;
+            }
+            return true;
+        }
+        
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            isTraversalStarted = true;
+            if (!isPrepared) prepare();
+            do {
+                sequentialSplitterator.forEachRemaining(action);
+            } while (advanceSlice());
+        }
+        
+        /*
+         * Moves on to the next slice, returns false once range is exhausted.
+         */
+        private boolean advanceSlice() {
+            if (position >= end || cancelled.get()) {
+                releaseLastSlice();
+                return false;
+            }
+            this.sequentialSplitterator = sliceSpliterator(nextSlice(), view, Long.MAX_VALUE, cancelled, averageRecordLength());
+            return true;
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            if (!isPrepared) prepare();
+            if (isTraversalStarted || end - position <= bufferSize || cancelled.get()) return null;
+            if (lineBreakQuote.isPresent() && quoteParity == null) {
+                this.quoteParity = new QuoteParity(source.length(), lineBreakQuote.get(), null);
+            }
+            long splitPoint = uncheckedIO(() -> nextRecordStart(source, quoteParity, position + (end - position) / 2, end));
+            if (splitPoint >= end) return null;
+            RangeSplittingSpliterator prefix = new RangeSplittingSpliterator(source, position, splitPoint, view, cancelled, averageRecordLength());
+            prefix.quoteParity = quoteParity;
+            this.position = splitPoint;
+            return prefix;
+        }
+        
+        /*
+         * Slice is released by slice spliterator once parsed, but we retain one more use until next slice is read,
+         * so that pooled buffer can be re-used by this spliterator. Bounded pool keeps its buffers, so retained 
+         * slice is released first instead, otherwise it would hold a buffer while waiting for another.
+         */
+        private ByteSlice nextSlice() {
+            if (source.pool.isBounded()) releaseLastSlice();
+            ByteSlice slice = uncheckedIO(this::readRecordAlignedSlice);
+            slice.incrementUse();
+            slice.incrementUse();
+            this.position += slice.size();
+            releaseLastSlice();
+            this.lastSlice = slice;
+            return slice;
+        }
+
+        private ByteSlice readRecordAlignedSlice() throws IOException {
+            long length = Math.min(bufferSize, end - position);
+            while (true) {
+                ByteSlice slice = source.slice(position, (int) length, charset);
+                if (position + length >= end) return slice;
+                Pair<ByteSlice, ByteSlice> sliced = splitOnLastLineEnd(slice, ByteSlice.empty()); //position is record start
+                if (sliced.first.size() > 0) return sliced.first;
+                slice.decremenentUse();
+                length = Math.min(Math.min(2 * length, end - position), Integer.MAX_VALUE - 8); //line is longer than buffer
+            }
+        }
+        
+        private void releaseLastSlice() {
+            if (lastSlice != null) lastSlice.decremenentUse();
+            this.lastSlice = null;
+        }
+
+        /*
+         * Skips header and moves range bounds to apply record skip and limit, only done for the whole range. 
+         */
+        private void prepare() {
+            this.isPrepared = true;
+            if (headerReader != null) skipHeader();
+            long skip = options.getSkipRecords();
+            long max = options.getMaxRecords();
+            if (skip > 0) this.position = uncheckedIO(() -> skipRecords(source, position, skip, end));
+            if (max != Long.MAX_VALUE) this.end = uncheckedIO(() -> skipRecords(source, position, max, end));
+        }
+        
+        private void skipHeader() {
+            SingleByteSlice slice = uncheckedIO(() -> headerWindow(source));
+            this.view = Optional.of(headerReader.apply(slice));
+            this.headerReader = null;
+            this.position = Math.max(position, slice.currentIndex);
+        }
+
+        @Override
+        public long estimateSize() {
+            return sequentialSplitterator.estimateSize() + estimateRecords(end - position, averageRecordLength());
+        }
+        
+        private double averageRecordLength() {
+            if (Double.isNaN(averageRecordLength)) this.averageRecordLength = uncheckedIO(source::averageRecordLength);
+            return averageRecordLength;
+        }
+
+        @Override
+        public int characteristics() {
+            return characteristics;
+        }
+    }
+    
+    /**
+     * Spliterator over several files. List of files is split in halves by size, single file is then split 
+     * into record aligned ranges, so chunks of all files are spread over the pool. Files are memory mapped 
+     * and closed once they are mapped, all files share the same buffer pool.
+     */
+    class MultiFileSpliterator implements Spliterator<T> {
+        
+        private final List<Path> paths;
+        private final long[] offsets;
+        private final BufferPool pool;
+        private final AtomicReference<FieldSubsetView<K>> lastView;
+        private final AtomicBoolean cancelled;
+        
+        private int from;
+        private int to;
+        private Spliterator<T> current = null;
+        private double averageRecordLength = Double.NaN; //sampled from the first remaining file
+
+        /**
+         * @param offsets - offset of each file within concatenation of all files, followed by total size
+         */
+        MultiFileSpliterator(List<Path> paths, long[] offsets, BufferPool pool, AtomicBoolean cancelled) {
+            this(paths, offsets, pool, new AtomicReference<>(fieldSubsetView.orElse(null)), cancelled, 0, paths.size());
+        }
+        
+        private MultiFileSpliterator(List<Path> paths, long[] offsets, BufferPool pool, 
+                AtomicReference<FieldSubsetView<K>> lastView, AtomicBoolean cancelled, int from, int to) {
+            this.paths = paths;
+            this.offsets = offsets;
+            this.pool = pool;
+            this.lastView = lastView;
+            this.cancelled = cancelled;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            while (current == null || !current.tryAdvance(action)) {
+                if (from >= to || cancelled.get()) return false;
+                this.current = open(paths.get(from++));
+            }
+            return true;
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            if (cancelled.get()) return null;
+            averageRecordLength(); //sampled once and passed on to split parts
+            if (current != null && from < to) { //file being parsed goes to prefix, remaining files stay here
+                MultiFileSpliterator prefix = new MultiFileSpliterator(paths, offsets, pool, lastView, cancelled, from, from);
+                prefix.averageRecordLength = averageRecordLength;
+                prefix.current = this.current;
+                this.current = null;
+                return prefix;
+            }
+            if (to - from > 1) {
+                int mid = Arrays.binarySearch(offsets, from, to, (offsets[from] + offsets[to]) / 2);
+                if (mid < 0) mid = -mid - 1;
+                mid = Math.max(from + 1, Math.min(to - 1, mid));
+                MultiFileSpliterator prefix = new MultiFileSpliterator(paths, offsets, pool, lastView, cancelled, from, mid);
+                prefix.averageRecordLength = averageRecordLength;
+                this.from = mid;
+                return prefix;
+            }
+            if (from < to) this.current = open(paths.get(from++));
+            return current == null ? null : current.trySplit();
+        }
+        
+        private Spliterator<T> open(Path path) {
+            RandomAccessSource source = uncheckedIO(() -> MappedFileSource.open(path, pool));
+            return new RangeSplittingSpliterator(source, this::readHeader, cancelled);
+        }
+        
+        private FieldSubsetView<K> readHeader(ByteSlice slice) {
+            FieldSubsetView<K> view = lastView.get().forNextSource(slice, metadata);
+            lastView.set(view);
+            return view;
+        }
+
+        @Override
+        public long estimateSize() {
+            long remainingBytes = offsets[to] - offsets[from];
+            return (current == null ? 0 : current.estimateSize()) + estimateRecords(remainingBytes, averageRecordLength());
+        }
+        
+        /*
+         * Sampled with positional read, as mapping the whole file would be wasteful for the sample.
+         */
+        private double averageRecordLength() {
+            if (Double.isNaN(averageRecordLength) && from < to) {
+                this.averageRecordLength = uncheckedIO(() -> {
+                    try (FileChannel channel = FileChannel.open(paths.get(from), StandardOpenOption.READ)) {
+                        return new FileChannelSource(channel, pool).averageRecordLength();
+                    }
+                });
+            }
+            return averageRecordLength;
+        }
+
+        @Override
+        public int characteristics() {
+            return characteristics;
+        }
+    }
+    
+    /*
+     * Start of the source, that is expected to contain the header.
+     */
+    private SingleByteSlice headerWindow(RandomAccessSource source) throws IOException {
+        byte[] window = new byte[(int) Math.min(bufferSize, source.length())];
+        int length = source.read(0, window, 0, window.length);
+        return new SingleByteSlice(new ByteArrayChunk(window, length, true, b -> {}), charset);
+    }
+    
+    /*
+     * Header is read on each parse, as random access sources can be parsed repeatedly or in parts.
+     */
+    private FieldSubsetView<K> readHeader(ByteSlice slice) {
+        return fieldSubsetView.get().forNextSource(slice, metadata);
+    }
+    
+    @FunctionalInterface
+    interface IOSupplier<R> {
+        R get() throws IOException;
+    }
+    
+    static <R> R uncheckedIO(IOSupplier<R> supplier) {
+        try {
+            return supplier.get();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+    
+    Spliterator<T> sliceSpliterator(ByteSlice slice, Optional<FieldSubsetView<K>> view, long maxRecords, AtomicBoolean cancelled, 
+            double averageRecordLength) {
+        return sliceParser.parse(slice, view, maxRecords, cancelled, averageRecordLength);
+    }
+    
+    private ByteSliceSpliterator recordSpliterator(ByteSlice slice, Optional<FieldSubsetView<K>> view, long maxRecords, 
+            AtomicBoolean cancelled, double averageRecordLength) {
+        long records = Math.min(maxRecords, estimateRecords(slice.size(), averageRecordLength));
+        return view.isPresent() ? 
+                new LensingByteSliceSpliterator(slice, view.get(), maxRecords, cancelled, records) : 
+                new ByteSliceSpliterator(slice, maxRecords, cancelled, records);
+    }
+    
+    static long estimateRecords(long bytes, double averageRecordLength) {
+        return bytes <= 0 ? 0 : Math.max(1, (long) (bytes / averageRecordLength));
     }
     
     class ByteSliceSpliterator implements Spliterator<T>, CSVRecord {
 
         protected final ByteSlice slice;
+        private final AtomicBoolean cancelled;
+        private final long estimatedRecords;
+        private long recordsRemaining;
 
-        ByteSliceSpliterator(ByteSlice slice) {
+        ByteSliceSpliterator(ByteSlice slice, long maxRecords, AtomicBoolean cancelled, long estimatedRecords) {
             this.slice = slice;//incoming slice should have no broken lines
+            this.recordsRemaining = maxRecords;
+            this.cancelled = cancelled;
+            this.estimatedRecords = estimatedRecords;
         }
 
         @Override
         public boolean tryAdvance(Consumer<? super T> action) {
-            if (!slice.hasMoreData()) {
+            if (!hasMoreRecords()) {
                 slice.decremenentUse();
                 return false;
             }
             advance(action);
             return true;
         }
+        
+        protected boolean hasMoreRecords() {
+            return recordsRemaining > 0 && slice.hasMoreData() && !cancelled.get();
+        }
 
         protected void advance(Consumer<? super T> action) {
             T t = mapper.apply(this);
             action.accept(t);
-            slice.nextLine();
+            nextRecord();
+        }
+        
+        private void nextRecord() {
+            if (lineBreakQuote.isPresent()) slice.nextLine(lineBreakQuote.get()); else slice.nextLine();
+            recordsRemaining--;
+        }
+        
+        /*
+         * Fields are parsed upfront by header-aware spliterator.
+         */
+        protected void prepareRecord() {
+        }
+        
+        /**
+         * Passes remaining records to the handler without mapping them and releases the slice.
+         */
+        void forEachRecord(RecordHandler handler) {
+            while (hasMoreRecords()) {
+                prepareRecord();
+                handler.onRecord(this);
+                nextRecord();
+            }
+            slice.decremenentUse();
         }
 
         @Override
@@ -168,12 +1086,12 @@ public class QuickCSVParser<T, K extends Enum<K>> implements CSVParser<T> {
 
         @Override
         public long estimateSize() {
-            return slice.size();
+            return estimatedRecords;
         }
 
         @Override
         public int characteristics() {
-            return ORDERED | NONNULL | IMMUTABLE;
+            return characteristics;
         }
 
         @Override
@@ -199,9 +1117,10 @@ public class QuickCSVParser<T, K extends Enum<K>> implements CSVParser<T> {
         private final FieldSubsetView<K> view;
         private final ByteArrayField[] fieldTemplates; 
 
-        public LensingByteSliceSpliterator(ByteSlice slice) {
-            super(slice);
-            this.view = fieldSubsetView.get();
+        public LensingByteSliceSpliterator(ByteSlice slice, FieldSubsetView<K> view, long maxRecords, AtomicBoolean cancelled, 
+                long estimatedRecords) {
+            super(slice, maxRecords, cancelled, estimatedRecords);
+            this.view = view;
             this.fieldTemplates = new ByteArrayField[view.getFieldSubsetSize()];
             for (int i = 0; i < fieldTemplates.length; i++) {
                 fieldTemplates[i] = new ByteArrayField(null, -1, -1, charset);
@@ -210,7 +1129,7 @@ public class QuickCSVParser<T, K extends Enum<K>> implements CSVParser<T> {
         
         @Override
         public boolean tryAdvance(Consumer<? super T> action) {
-            if (!slice.hasMoreData()) {
+            if (!hasMoreRecords()) {
                 slice.decremenentUse();
                 return false;
             }
@@ -219,6 +1138,11 @@ public class QuickCSVParser<T, K extends Enum<K>> implements CSVParser<T> {
             return true;
         }
 
+        @Override
+        protected void prepareRecord() {
+            parseFields();
+        }
+
         private void parseFields() {
             int[] skipSchedule = view.getFieldSkipSchedule();
             for (int i = 0; i < skipSchedule.length; i++) {
@@ -243,4 +1167,205 @@ public class QuickCSVParser<T, K extends Enum<K>> implements CSVParser<T> {
             return view.getHeader();
         }
     }
+    
+    /**
+     * Collects records of the slice into single list, on the thread that parses the slice. 
+     * Empty slices do not produce a list.
+     */
+    private static class BatchSpliterator<T> implements Spliterator<List<T>> {
+        
+        private final Spliterator<T> records;
+        private boolean isDone = false;
+        
+        BatchSpliterator(Spliterator<T> records) {
+            this.records = records;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super List<T>> action) {
+            if (isDone) return false;
+            this.isDone = true;
+            List<T> batch = new ArrayList<>((int) Math.min(records.estimateSize(), MAX_INITIAL_BATCH_CAPACITY));
+            records.forEachRemaining(batch::add);
+            if (batch.isEmpty()) return false;
+            action.accept(batch);
+            return true;
+        }
+
+        @Override
+        public Spliterator<List<T>> trySplit() {
+            return null;
+        }
+
+        @Override
+        public long estimateSize() {
+            return isDone ? 0 : 1;
+        }
+
+        @Override
+        public int characteristics() {
+            return records.characteristics();
+        }
+    }
+    
+    /**
+     * Passes all records of the slice to the handler on first advance, produces no elements.
+     */
+    private static class HandlingSpliterator implements Spliterator<Void> {
+        
+        private final QuickCSVParser<?, ?>.ByteSliceSpliterator records;
+        private final RecordHandler handler;
+        private boolean isDone = false;
+        
+        HandlingSpliterator(QuickCSVParser<?, ?>.ByteSliceSpliterator records, RecordHandler handler) {
+            this.records = records;
+            this.handler = handler;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Void> action) {
+            if (!isDone) records.forEachRecord(handler);
+            this.isDone = true;
+            return false;
+        }
+
+        @Override
+        public Spliterator<Void> trySplit() {
+            return null;
+        }
+
+        @Override
+        public long estimateSize() {
+            return 0;
+        }
+
+        @Override
+        public int characteristics() {
+            return records.characteristics();
+        }
+    }
+    
+    /**
+     * Folds all records of the slice into new accumulator on first advance.
+     */
+    private static class ReducingSpliterator<A> implements Spliterator<A> {
+        
+        private final QuickCSVParser<?, ?>.ByteSliceSpliterator records;
+        private final Supplier<A> accumulatorFactory;
+        private final BiConsumer<A, CSVRecord> accumulate;
+        private boolean isDone = false;
+        
+        ReducingSpliterator(QuickCSVParser<?, ?>.ByteSliceSpliterator records, Supplier<A> accumulatorFactory, 
+                BiConsumer<A, CSVRecord> accumulate) {
+            this.records = records;
+            this.accumulatorFactory = accumulatorFactory;
+            this.accumulate = accumulate;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super A> action) {
+            if (isDone) return false;
+            this.isDone = true;
+            A accumulator = accumulatorFactory.get();
+            records.forEachRecord(r -> accumulate.accept(accumulator, r));
+            action.accept(accumulator);
+            return true;
+        }
+
+        @Override
+        public Spliterator<A> trySplit() {
+            return null;
+        }
+
+        /*
+         * Records rather than accumulators are estimated, so that splitting of the source is not affected by reduction.
+         */
+        @Override
+        public long estimateSize() {
+            return isDone ? 0 : records.estimateSize();
+        }
+
+        @Override
+        public int characteristics() {
+            return records.characteristics();
+        }
+    }
+    
+    /**
+     * Cursor over slices of the source, fields of the current record are parsed into re-used field objects.
+     */
+    private static class RecordCursor implements CSVCursor {
+        
+        private final Stream<? extends QuickCSVParser<?, ?>.ByteSliceSpliterator> stream;
+        private final Spliterator<? extends QuickCSVParser<?, ?>.ByteSliceSpliterator> slices;
+        private final Charset charset;
+        
+        private QuickCSVParser<?, ?>.ByteSliceSpliterator current = null;
+        private boolean isOnRecord = false;
+        private boolean isClosed = false;
+        private ByteArrayField[] fields = new ByteArrayField[0];
+        private int fieldCount = 0;
+        
+        RecordCursor(Stream<? extends QuickCSVParser<?, ?>.ByteSliceSpliterator> stream, Charset charset) {
+            this.stream = stream;
+            this.slices = stream.spliterator();
+            this.charset = charset;
+        }
+
+        @Override
+        public boolean next() {
+            if (isClosed) return false;
+            if (isOnRecord) current.nextRecord();
+            this.isOnRecord = false;
+            this.fieldCount = 0;
+            while (current == null || !current.hasMoreRecords()) {
+                if (current != null) current.slice.decremenentUse();
+                this.current = null;
+                if (!slices.tryAdvance(slice -> this.current = slice)) return false;
+            }
+            parseFields();
+            this.isOnRecord = true;
+            return true;
+        }
+        
+        private void parseFields() {
+            ByteArrayField field;
+            while ((field = current.getNextField()) != null) {
+                if (fieldCount == fields.length) growFields();
+                fields[fieldCount++].initFrom(field);
+            }
+        }
+        
+        private void growFields() {
+            int length = fields.length;
+            this.fields = Arrays.copyOf(fields, Math.max(2 * length, 16));
+            for (int i = length; i < fields.length; i++) {
+                fields[i] = new ByteArrayField(null, -1, -1, charset);
+            }
+        }
+
+        @Override
+        public int fieldCount() {
+            return fieldCount;
+        }
+
+        @Override
+        public Field field(int index) {
+            if (!isOnRecord) throw new IllegalStateException("Cursor is not positioned on a record");
+            if (index < 0 || index >= fieldCount) {
+                throw new IndexOutOfBoundsException("Field "+index+" of record with "+fieldCount+" fields");
+            }
+            return fields[index];
+        }
+
+        @Override
+        public void close() {
+            if (isClosed) return;
+            this.isClosed = true;
+            this.isOnRecord = false;
+            if (current != null) current.slice.decremenentUse();
+            this.current = null;
+            stream.close();
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,98 @@
+package uk.elementarysoftware.quickcsv.parser;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.IntStream;
+
+/**
+ * Quote state at the start of fixed size blocks of the source, so that record starts can be found at arbitrary 
+ * positions when quoted fields can contain line breaks. Blocks are scanned in parallel, each block only counts 
+ * parity of its quotes, then state at the start of each block is resolved by prefix pass over parities of preceding 
+ * blocks. Escaped quotes come in pairs, so they do not change parity. Blocks are scanned on demand, only those 
+ * preceding requested position, and parities are kept, so each block is scanned once.
+ */
+final class QuoteParity {
+
+    private static final int BLOCK_SIZE = 1 << 20;
+    private static final int WINDOW_SIZE = 1 << 16;
+    
+    private static final int UNKNOWN = 0;
+    private static final int EVEN = 1;
+    private static final int ODD = 2;
+
+    private final char quote;
+    private final Object fileKey;
+    private final AtomicIntegerArray blockParities;
+
+    /**
+     * @param fileKey - identifies content of the source, when parities are kept between sources of the same file,
+     *  can be null
+     */
+    QuoteParity(long length, char quote, Object fileKey) {
+        this.quote = quote;
+        this.fileKey = fileKey;
+        this.blockParities = new AtomicIntegerArray((int) ((length + BLOCK_SIZE - 1) / BLOCK_SIZE));
+    }
+    
+    boolean isFor(Object fileKey) {
+        return this.fileKey != null && this.fileKey.equals(fileKey);
+    }
+
+    /*
+     * Parity of the block does not depend on other blocks, so concurrent callers may scan the same block, 
+     * but never store different values.
+     */
+    private boolean isInQuotesAtBlockStart(RandomAccessSource source, int block) {
+        long length = source.length();
+        IntStream.range(0, block).filter(i -> blockParities.get(i) == UNKNOWN).parallel().forEach(i -> {
+            boolean isOdd = QuickCSVParser.uncheckedIO(() -> 
+                isOdd(source, i * (long) BLOCK_SIZE, Math.min((i + 1) * (long) BLOCK_SIZE, length), quote));
+            blockParities.set(i, isOdd ? ODD : EVEN);
+        });
+        boolean isInQuotes = false;
+        for (int i = 0; i < block; i++) {
+            isInQuotes ^= blockParities.get(i) == ODD;
+        }
+        return isInQuotes;
+    }
+
+    private static boolean isOdd(RandomAccessSource source, long start, long end, char quote) throws IOException {
+        byte[] window = new byte[WINDOW_SIZE];
+        boolean isOdd = false;
+        for (long position = start; position < end; ) {
+            int read = source.read(position, window, 0, (int) Math.min(window.length, end - position));
+            if (read <= 0) break;
+            for (int i = 0; i < read; i++) {
+                if (window[i] == quote) isOdd = !isOdd;
+            }
+            position += read;
+        }
+        return isOdd;
+    }
+
+    /**
+     * Same as {@link RandomAccessSource#nextRecordStart(long, long)}, but line ends within quoted fields are ignored.
+     * Scan starts from the start of the block that contains position, preceding blocks are scanned if not yet known.
+     */
+    long nextRecordStart(RandomAccessSource source, long position, long limit) throws IOException {
+        if (position <= 0) return 0;
+        int block = (int) ((position - 1) / BLOCK_SIZE);
+        boolean isInQuotes = isInQuotesAtBlockStart(source, block);
+        boolean seenEOL = false;
+        byte[] window = new byte[WINDOW_SIZE];
+        for (long current = (long) block * BLOCK_SIZE; current < limit; ) {
+            int read = source.read(current, window, 0, (int) Math.min(window.length, limit - current));
+            if (read <= 0) break;
+            for (int i = 0; i < read; i++, current++) {
+                byte b = window[i];
+                boolean isEOL = !isInQuotes && (b == ByteSlice.CR || b == ByteSlice.LF);
+                if (current >= position - 1) {
+                    if (seenEOL && !isEOL) return current;
+                    seenEOL |= isEOL;
+                }
+                if (b == quote) isInQuotes = !isInQuotes;
+            }
+        }
+        return limit;
+    }
+}
@@ -0,0 +1,135 @@
+package uk.elementarysoftware.quickcsv.parser;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+
+import uk.elementarysoftware.quickcsv.api.ByteArraySource;
+
+/**
+ * Source of known length that can be read at arbitrary positions, possibly by several threads at once.
+ * 
+ * Parser splits such sources into record aligned ranges, which are then read and parsed independently,
+ * without going through single sequential reader. Sequential access via {@link #getNext()} is still supported.
+ */
+abstract class RandomAccessSource implements ByteArraySource {
+    
+    private static final int PROBE_SIZE = 4096;
+    private static final int SCAN_SIZE = 1 << 16;
+    private static final int NO_QUOTE = Integer.MIN_VALUE; //does not match any byte
+    
+    protected final BufferPool pool;
+    
+    private long nextPosition = 0;
+
+    RandomAccessSource(BufferPool pool) {
+        this.pool = pool;
+    }
+
+    abstract long length();
+
+    /**
+     * Reads up to length bytes starting from position in the source. Must be safe to call concurrently.
+     * @return number of bytes actually read
+     */
+    abstract int read(long position, byte[] buffer, int offset, int length) throws IOException;
+
+    /**
+     * Reads range of the source into slice. Returned slice has zero use count.
+     */
+    ByteSlice slice(long position, int length, Charset charset) throws IOException {
+        boolean isPooled = length <= pool.getBufferSize();
+        byte[] buffer = isPooled ? pool.getBuffer() : new byte[length];
+        int read = readFully(position, buffer, length);
+        ByteArrayChunk chunk = new ByteArrayChunk(buffer, read, position + read >= length(), isPooled ? pool::handBack : b -> {});
+        return ByteSlice.wrap(chunk, charset);
+    }
+
+    @Override
+    public ByteArrayChunk getNext() throws IOException {
+        byte[] buffer = pool.getBuffer();
+        int read = readFully(nextPosition, buffer, (int) Math.min(buffer.length, length() - nextPosition));
+        nextPosition += read;
+        return new ByteArrayChunk(buffer, read, read == 0, pool::handBack);
+    }
+
+    /**
+     * Finds start of the first record that begins at or after given position, that is first position that follows
+     * line end found at or after position - 1. Empty lines are skipped.
+     * @param position - position to start search from
+     * @param limit - position where search stops
+     * @return record start or limit if no record starts before limit
+     */
+    long nextRecordStart(long position, long limit) throws IOException {
+        if (position <= 0) return 0;
+        byte[] window = new byte[PROBE_SIZE];
+        boolean seenEOL = false;
+        long current = position - 1;
+        while (current < limit) {
+            int read = read(current, window, 0, (int) Math.min(window.length, limit - current));
+            if (read <= 0) break;
+            for (int i = 0; i < read; i++, current++) {
+                boolean isEOL = window[i] == ByteSlice.CR || window[i] == ByteSlice.LF;
+                if (seenEOL && !isEOL) return current;
+                seenEOL |= isEOL;
+            }
+        }
+        return limit;
+    }
+
+    /**
+     * Estimates average record length from the start of the source.
+     */
+    double averageRecordLength() throws IOException {
+        byte[] window = new byte[(int) Math.min(SCAN_SIZE, length())];
+        int read = readFully(0, window, window.length);
+        SingleByteSlice slice = new SingleByteSlice(new ByteArrayChunk(window, read, true, b -> {}), null);
+        return slice.averageRecordLength(read);
+    }
+
+    /**
+     * Skips records starting from given record start, records are counted as in {@link #nextRecordStart(long, long)}.
+     * @param position - start of the first record to skip
+     * @param n - number of records to skip
+     * @param limit - position where search stops
+     * @return start of the record that follows skipped records or limit if there are not that many records before limit
+     */
+    long skipRecords(long position, long n, long limit) throws IOException {
+        return skipRecords(position, n, limit, NO_QUOTE);
+    }
+    
+    /**
+     * Same as {@link #skipRecords(long, long, long)}, but line ends within quoted fields are ignored.
+     */
+    long skipRecords(long position, long n, long limit, char quote) throws IOException {
+        return skipRecords(position, n, limit, (int) quote);
+    }
+    
+    private long skipRecords(long position, long n, long limit, int quote) throws IOException {
+        byte[] window = new byte[SCAN_SIZE];
+        boolean isPreviousEOL = true;
+        boolean isInQuotes = false;
+        long toSkip = n;
+        for (long current = position; current < limit; ) {
+            int read = read(current, window, 0, (int) Math.min(window.length, limit - current));
+            if (read <= 0) break;
+            for (int i = 0; i < read; i++) {
+                boolean isEOL = !isInQuotes && (window[i] == ByteSlice.CR || window[i] == ByteSlice.LF);
+                if (isPreviousEOL && !isEOL && toSkip-- == 0) return current + i;
+                if (window[i] == quote) isInQuotes = !isInQuotes;
+                isPreviousEOL = isEOL;
+            }
+            current += read;
+        }
+        return limit;
+    }
+
+    private int readFully(long position, byte[] buffer, int length) throws IOException {
+        int total = 0;
+        while (total < length) {
+            int read = read(position + total, buffer, total, length - total);
+            if (read <= 0) break;
+            total += read;
+        }
+        return total;
+    }
+}
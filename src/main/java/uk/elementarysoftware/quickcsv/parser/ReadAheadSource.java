@@ -0,0 +1,109 @@
+package uk.elementarysoftware.quickcsv.parser;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import uk.elementarysoftware.quickcsv.api.ByteArraySource;
+
+/**
+ * Reads underlying source on dedicated thread, keeping up to depth chunks queued ahead of the parser,
+ * so that I/O overlaps with parsing and mapping.
+ */
+class ReadAheadSource implements ByteArraySource {
+    
+    private static final ByteArrayChunk END = new ByteArrayChunk(new byte[0], 0, true, b -> {});
+    private static final long CLOSE_CHECK_INTERVAL_MS = 100;
+    
+    private final ByteArraySource source;
+    private final IOStatistics statistics;
+    private final BlockingQueue<Object> queue; //contains chunks or exception thrown by the source
+    private final boolean isVirtual;
+    
+    private Thread reader = null;
+    private boolean isEndReached = false;
+    private volatile boolean isClosed = false;
+
+    ReadAheadSource(ByteArraySource source, int depth, IOStatistics statistics) {
+        this(source, depth, statistics, false);
+    }
+    
+    /**
+     * @param isVirtual - read on virtual thread if available
+     */
+    ReadAheadSource(ByteArraySource source, int depth, IOStatistics statistics, boolean isVirtual) {
+        this.source = source;
+        this.statistics = statistics;
+        this.queue = new ArrayBlockingQueue<>(depth);
+        this.isVirtual = isVirtual;
+    }
+
+    @Override
+    public ByteArrayChunk getNext() throws Exception {
+        if (isEndReached || isClosed) return END;
+        if (reader == null) startReader();
+        Object next = queue.poll();
+        if (next == null) {
+            long start = System.nanoTime();
+            next = queue.take();
+            statistics.onStall(System.nanoTime() - start);
+        }
+        if (next instanceof Exception) {
+            isEndReached = true;
+            throw (Exception) next;
+        }
+        ByteArrayChunk chunk = (ByteArrayChunk) next;
+        isEndReached = chunk.isLast();
+        return chunk;
+    }
+
+    private void startReader() {
+        this.reader = Threads.newThread(this::readAll, "quick-csv-read-ahead", isVirtual);
+        reader.start();
+    }
+    
+    private void readAll() {
+        try {
+            while (!isClosed) {
+                ByteArrayChunk chunk = source.getNext();
+                if (!enqueue(chunk) || isClosed && queue.remove(chunk)) { //queued after close has drained the queue
+                    chunk.decrementUseCount();
+                    return;
+                }
+                if (chunk.isLast()) return;
+            }
+        } catch (Exception e) {
+            enqueue(e);
+        }
+    }
+    
+    /*
+     * Waits for space in the queue until source is closed. Reader is not interrupted on close, as interrupt 
+     * would close interruptible channel it may be reading from.
+     */
+    private boolean enqueue(Object next) {
+        try {
+            while (!queue.offer(next, CLOSE_CHECK_INTERVAL_MS, TimeUnit.MILLISECONDS)) {
+                if (isClosed) return false;
+            }
+            return true;
+        } catch (InterruptedException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Stops reader thread, releases chunks that were read ahead but not consumed and closes underlying source.
+     * Reader stops once read it is blocked on completes, it is not interrupted.
+     */
+    @Override
+    public void close() {
+        this.isClosed = true;
+        Object next;
+        while ((next = queue.poll()) != null) {
+            if (next instanceof ByteArrayChunk) ((ByteArrayChunk) next).decrementUseCount();
+        }
+        queue.offer(END); //wakes up parser if it is waiting for the next chunk
+        QuickCSVParser.closeQuietly(source);
+    }
+}
@@ -0,0 +1,53 @@
+package uk.elementarysoftware.quickcsv.parser;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SelectableChannel;
+
+import uk.elementarysoftware.quickcsv.api.ByteArraySource;
+
+/**
+ * Reads channel sequentially into pooled buffers, the same way as {@link InputStreamToByteArraySourceAdapter} 
+ * reads input stream. Channel must be in blocking mode.
+ */
+class ReadableByteChannelSource implements ByteArraySource {
+
+    private final ReadableByteChannel channel;
+    private final BufferPool pool;
+    private final long maxFillDelayNanos;
+    private final IOStatistics statistics;
+    
+    /**
+     * @param maxFillDelayNanos - when positive, channel is read repeatedly until buffer is full or 
+     *  delay has passed since reading of the buffer started. Delay is checked between reads.
+     */
+    ReadableByteChannelSource(ReadableByteChannel channel, BufferPool pool, long maxFillDelayNanos, IOStatistics statistics) {
+        if (channel instanceof SelectableChannel && !((SelectableChannel) channel).isBlocking()) {
+            throw new IllegalArgumentException("Channel should be in blocking mode");
+        }
+        this.channel = channel;
+        this.pool = pool;
+        this.maxFillDelayNanos = maxFillDelayNanos;
+        this.statistics = statistics;
+    }
+
+    @Override
+    public ByteArrayChunk getNext() throws IOException {
+        byte[] buffer = pool.getBuffer();
+        ByteBuffer target = ByteBuffer.wrap(buffer);
+        if (channel.read(target) == -1) return new ByteArrayChunk(buffer, 0, true, pool::handBack);
+        boolean isEndReached = false;
+        if (maxFillDelayNanos > 0) {
+            long deadline = System.nanoTime() + maxFillDelayNanos;
+            while (target.hasRemaining() && System.nanoTime() - deadline < 0) {
+                if (channel.read(target) == -1) {
+                    isEndReached = true;
+                    break;
+                }
+            }
+        }
+        statistics.onChunkRead(target.position(), buffer.length);
+        return new ByteArrayChunk(buffer, target.position(), isEndReached, pool::handBack);
+    }
+}
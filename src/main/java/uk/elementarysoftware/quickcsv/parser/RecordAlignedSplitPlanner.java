@@ -0,0 +1,49 @@
+package uk.elementarysoftware.quickcsv.parser;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import uk.elementarysoftware.quickcsv.api.CSVSplitPlanner;
+import uk.elementarysoftware.quickcsv.api.CSVSplitPlanner.Split;
+
+/**
+ * Implementation of {@link CSVSplitPlanner}. Boundaries are found with {@link RandomAccessSource#nextRecordStart(long, long)},
+ * so splits start exactly where ranges of the parser start.
+ */
+public class RecordAlignedSplitPlanner {
+    
+    private RecordAlignedSplitPlanner() {
+    }
+
+    public static List<Split> plan(Path path, long targetSplitSize) throws IOException {
+        if (targetSplitSize <= 0) throw new IllegalArgumentException("Split size should be positive: "+targetSplitSize);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            RandomAccessSource source = probeSource(channel);
+            long length = source.length();
+            List<Split> splits = new ArrayList<>();
+            long start = 0;
+            while (start < length) {
+                long end = length - start <= targetSplitSize ? length : source.nextRecordStart(start + targetSplitSize, length);
+                splits.add(new Split(start, end));
+                start = end;
+            }
+            return splits;
+        }
+    }
+    
+    /**
+     * @return start of the first record that begins at or after position, or size of the file if there is none
+     */
+    public static long nextRecordStart(FileChannel channel, long position) throws IOException {
+        RandomAccessSource source = probeSource(channel);
+        return source.nextRecordStart(position, source.length());
+    }
+    
+    private static RandomAccessSource probeSource(FileChannel channel) throws IOException {
+        return new FileChannelSource(channel, new BufferPool(0)); //only probed, buffers are not taken
+    }
+}
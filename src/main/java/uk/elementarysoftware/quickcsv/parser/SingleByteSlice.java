@@ -0,0 +1,237 @@
+package uk.elementarysoftware.quickcsv.parser;
+
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+import uk.elementarysoftware.quickcsv.api.ByteArraySource.ByteArrayChunk;
+import uk.elementarysoftware.quickcsv.functional.Pair;
+
+final class SingleByteSlice implements ByteSlice {
+    final int start;//inclusive
+    final int end;//exclusive
+    final byte[] buffer;
+    final ByteArrayField fieldTemplateObject;
+    final Charset charset;
+    final ByteArrayChunk src;
+
+    int currentIndex;
+
+    public SingleByteSlice(ByteArrayChunk src, Charset charset) {
+        this(src, src.getData(), 0, src.getLength(), charset);
+    }
+
+    public SingleByteSlice(ByteArrayChunk src, byte[] buffer, int start, int end, Charset charset) {
+        this.src = src;
+        this.buffer = buffer;
+        this.start = start;
+        this.end = end;
+        this.fieldTemplateObject = new ByteArrayField(buffer, 0, 0, charset);
+        this.currentIndex = start;
+        this.charset = charset;
+    }
+
+    /**
+     * Estimates average record length, including line ends, from up to sampleSize bytes following current position. 
+     * Position is not changed.
+     */
+    double averageRecordLength(int sampleSize) {
+        int to = Math.min(end, currentIndex + sampleSize);
+        long records = 0;
+        boolean isPreviousEOL = true;
+        for (int i = currentIndex; i < to; i++) {
+            boolean isEOL = buffer[i] == CR || buffer[i] == LF;
+            if (isPreviousEOL && !isEOL) records++;
+            isPreviousEOL = isEOL;
+        }
+        return records == 0 ? Math.max(1, to - currentIndex) : (double) (to - currentIndex) / records;
+    }
+
+    /**
+     * @return slice over the same content, with independent position and no additional use
+     */
+    SingleByteSlice copy() {
+        return new SingleByteSlice(src, buffer, currentIndex, end, charset);
+    }
+
+    /**
+     * Appends remaining bytes of the next slice to remaining bytes of this slice. Bytes are written past the content 
+     * of the buffer of this slice when this slice ends with the content and buffer has room, otherwise both are copied 
+     * into new, unpooled buffer of double size, so that repeated appends copy each byte constant number of times 
+     * on average. Returned slice shares the use of this slice. Positions of both slices are not changed.
+     */
+    SingleByteSlice append(SingleByteSlice next) {
+        int length = end - currentIndex;
+        int nextLength = next.end - next.currentIndex;
+        if (end >= src.getLength() && buffer.length - end >= nextLength) {
+            System.arraycopy(next.buffer, next.currentIndex, buffer, end, nextLength);
+            return new SingleByteSlice(src, buffer, currentIndex, end + nextLength, next.charset);
+        }
+        byte[] grown = Arrays.copyOfRange(buffer, currentIndex, currentIndex + 2 * (length + nextLength));
+        System.arraycopy(next.buffer, next.currentIndex, grown, length, nextLength);
+        return new SingleByteSlice(new ByteArrayChunk(grown, length + nextLength, false, (b) -> {}), next.charset);
+    }
+
+    @Override
+    public int size() {
+        return end - start;
+    }
+
+    @Override
+    public boolean hasMoreData() {
+        return currentIndex < end;
+    }
+
+    boolean frontTrim() {
+        boolean seenEOL = false;
+        for(; hasMoreData() && (buffer[currentIndex]==CR || buffer[currentIndex]==LF); currentIndex++) {
+            seenEOL = true;
+        }
+        return seenEOL;
+    }
+
+    @Override
+    public boolean nextLine() {
+        for(; hasMoreData() && buffer[currentIndex]!=CR && buffer[currentIndex]!=LF; currentIndex++);
+        return frontTrim();
+    }
+
+    @Override
+    public boolean nextLine(char quote) {
+        boolean isInQuotes = false;
+        for(; hasMoreData(); currentIndex++) {
+            byte cur = buffer[currentIndex];
+            if (cur == quote) isInQuotes = !isInQuotes;
+            else if (!isInQuotes && (cur == CR || cur == LF)) break;
+        }
+        return frontTrim();
+    }
+
+    public String currentLine() {
+        int startIdx = currentIndex;
+        for(; startIdx > start && buffer[startIdx]!=CR && buffer[startIdx]!=LF; startIdx--);
+        int endIdx = currentIndex;
+        for(; endIdx < end && buffer[endIdx]!=CR && buffer[endIdx]!=LF; endIdx++);
+        return new String(buffer, startIdx, endIdx - startIdx);
+    }
+
+    public Pair<ByteSlice, ByteSlice> splitOnLastLineEnd() {
+        int i = end-1;
+        for (;i >=currentIndex && buffer[i] != LF; i--);
+        SingleByteSlice prefix = new SingleByteSlice(src, buffer, currentIndex, i+1, charset);
+        SingleByteSlice suffix = new SingleByteSlice(src, buffer, i+1, end, charset);
+        return Pair.of(prefix, suffix);
+    }
+    
+    @Override
+    public Pair<ByteSlice, ByteSlice> splitOnLastLineEnd(char quote, boolean isInQuotes) {
+        int split = currentIndex;
+        for (int i = currentIndex; i < end; i++) {
+            byte cur = buffer[i];
+            if (cur == quote) isInQuotes = !isInQuotes;
+            else if (cur == LF && !isInQuotes) split = i + 1;
+        }
+        SingleByteSlice prefix = new SingleByteSlice(src, buffer, currentIndex, split, charset);
+        SingleByteSlice suffix = new SingleByteSlice(src, buffer, split, end, charset);
+        return Pair.of(prefix, suffix);
+    }
+    
+    /**
+     * @return whether end of the slice is within quoted field, assuming current position is not
+     */
+    boolean isInQuotesAtEnd(char quote) {
+        boolean isInQuotes = false;
+        for (int i = currentIndex; i < end; i++) {
+            if (buffer[i] == quote) isInQuotes = !isInQuotes;
+        }
+        return isInQuotes;
+    }
+
+    public boolean skipUntil(final char c) {
+        boolean isFound = false;
+        while(currentIndex < end) {
+            if (buffer[currentIndex]==c) {
+                currentIndex++;
+                isFound = true;
+                break;
+            }
+            currentIndex++;
+        }
+        return isFound;
+    }
+
+    public boolean skipUntil(char c, char q) {
+        boolean inQuote = currentIndex < buffer.length && buffer[currentIndex] == q;
+        if (!inQuote) return skipUntil(c);
+        currentIndex++;
+        boolean isFound = false;
+        while(currentIndex < end) {
+            if (buffer[currentIndex]==c && buffer[currentIndex-1] == q) {
+                currentIndex++;
+                isFound = true;
+                break;
+            }
+            currentIndex++;
+        }
+        return isFound;
+    }
+
+    public ByteArrayField nextField(final char c) {
+        int startIndex = currentIndex;
+        int endIndex = currentIndex;
+        while(currentIndex < end) {
+            byte cur = buffer[currentIndex];
+            if (cur == c || cur == CR || cur == LF) {
+                endIndex = currentIndex;
+                if (cur == c)
+                    currentIndex++;
+                break;
+            } else {
+                currentIndex++;
+            }
+        }
+        if (currentIndex == startIndex) return null;
+        if (currentIndex == end) endIndex = end;
+        fieldTemplateObject.modifyBounds(startIndex, endIndex);
+        return fieldTemplateObject;
+    }
+
+    @Override
+    public ByteArrayField nextField(char c, char q) {
+        boolean inQuote = currentIndex < buffer.length && buffer[currentIndex] == q;
+        if (!inQuote) return nextField(c);
+        currentIndex++;
+        int startIndex = currentIndex;
+        int endIndex = currentIndex;
+        while(currentIndex < end) {
+            byte cur = buffer[currentIndex];
+            if ((cur == c || cur == CR || cur == LF) && buffer[currentIndex-1] == q) {//there is an issue when we have escaped quote and then separator, but we ignore it for now
+                endIndex = currentIndex - 1;
+                if (cur == c) currentIndex++; //let frontTrim consume linebreaks later
+                break;
+            } else {
+                currentIndex++;
+            }
+        }
+        if (currentIndex == startIndex) return null;
+        if (currentIndex == end) {
+            if (buffer[end-1] == q) endIndex = end - 1; else endIndex = end;
+        }
+        fieldTemplateObject.modifyBounds(startIndex, endIndex, q);
+        return fieldTemplateObject;
+    }
+
+    @Override
+    public String toString() {
+        return new String(buffer, start, size());
+    }
+
+    @Override
+    public void incrementUse() {
+        src.incrementUseCount();
+    }
+
+    @Override
+    public void decremenentUse() {
+        src.decrementUseCount();
+    }
+}
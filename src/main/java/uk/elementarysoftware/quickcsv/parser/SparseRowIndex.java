@@ -0,0 +1,186 @@
+package uk.elementarysoftware.quickcsv.parser;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import uk.elementarysoftware.quickcsv.api.RowIndex;
+
+/**
+ * Sparse {@link RowIndex} implementation used by {@link QuickCSVParser}.
+ *
+ * Index is built in single parallel pass. File is divided into chunks and offset of every N-th record of each chunk
+ * is kept, so that any record is at most N records away from indexed one.
+ */
+public class SparseRowIndex implements RowIndex {
+
+    private static final int MAGIC = 0x51435249; //QCRI
+    private static final int CHUNK_SIZE = 1 << 22;
+    private static final int WINDOW_SIZE = 1 << 16;
+
+    private final long length;
+    private final long rowCount;
+    private final int stride;
+    private final long[] rows;
+    private final long[] offsets;
+
+    private SparseRowIndex(long length, long rowCount, int stride, long[] rows, long[] offsets) {
+        this.length = length;
+        this.rowCount = rowCount;
+        this.stride = stride;
+        this.rows = rows;
+        this.offsets = offsets;
+    }
+
+    /**
+     * Builds index of the file.
+     * @param path - file to index
+     * @param stride - index every stride-th record
+     * @return index of the file
+     * @throws IOException if file can not be read
+     */
+    public static SparseRowIndex build(Path path, int stride) throws IOException {
+        if (stride <= 0) throw new IllegalArgumentException("Stride should be positive: "+stride);
+        MappedFileSource source = MappedFileSource.open(path, new BufferPool(WINDOW_SIZE));
+        long length = source.length();
+        int nChunks = (int) ((length + CHUNK_SIZE - 1) / CHUNK_SIZE);
+        List<ChunkIndex> chunks = IntStream.range(0, nChunks).parallel()
+                .mapToObj(i -> QuickCSVParser.uncheckedIO(() -> indexChunk(source, i * (long) CHUNK_SIZE, stride)))
+                .collect(Collectors.toList());
+        int size = 0;
+        for (ChunkIndex chunk : chunks) size += chunk.size;
+        long[] rows = new long[size];
+        long[] offsets = new long[size];
+        long rowCount = 0;
+        int idx = 0;
+        for (ChunkIndex chunk : chunks) {
+            for (int i = 0; i < chunk.size; i++, idx++) {
+                rows[idx] = rowCount + (long) i * stride;
+                offsets[idx] = chunk.offsets[i];
+            }
+            rowCount += chunk.rowCount;
+        }
+        return new SparseRowIndex(length, rowCount, stride, rows, offsets);
+    }
+
+    /*
+     * Indexes records starting within chunk, chunk boundaries are moved to record starts.
+     */
+    private static ChunkIndex indexChunk(RandomAccessSource source, long chunkStart, int stride) throws IOException {
+        long length = source.length();
+        long start = source.nextRecordStart(chunkStart, length);
+        long end = source.nextRecordStart(Math.min(chunkStart + CHUNK_SIZE, length), length);
+        ChunkIndex result = new ChunkIndex();
+        byte[] window = new byte[WINDOW_SIZE];
+        boolean isPreviousEOL = true;
+        for (long position = start; position < end; ) {
+            int read = source.read(position, window, 0, (int) Math.min(window.length, end - position));
+            for (int i = 0; i < read; i++) {
+                boolean isEOL = window[i] == ByteSlice.CR || window[i] == ByteSlice.LF;
+                if (isPreviousEOL && !isEOL) {
+                    if (result.rowCount % stride == 0) result.add(position + i);
+                    result.rowCount++;
+                }
+                isPreviousEOL = isEOL;
+            }
+            position += read;
+        }
+        return result;
+    }
+
+    /**
+     * Finds offset of the record by scanning forward from the closest indexed record.
+     * @return offset of the record or length of the source if there are not that many records
+     */
+    long offsetOf(RandomAccessSource source, long row) throws IOException {
+        if (source.length() != length) throw new IllegalStateException("Index does not match the file, file length has changed");
+        if (row >= rowCount || rows.length == 0) return length;
+        int i = Arrays.binarySearch(rows, row);
+        if (i < 0) i = -i - 2;
+        return source.skipRecords(offsets[i], row - rows[i], length);
+    }
+
+    @Override
+    public void save(Path path) throws IOException {
+        try (DataOutputStream os = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            os.writeInt(MAGIC);
+            os.writeLong(length);
+            os.writeLong(rowCount);
+            os.writeInt(stride);
+            os.writeInt(rows.length);
+            for (int i = 0; i < rows.length; i++) { //both are increasing, so deltas are stored
+                writeVarLong(os, rows[i] - (i == 0 ? 0 : rows[i - 1]));
+                writeVarLong(os, offsets[i] - (i == 0 ? 0 : offsets[i - 1]));
+            }
+        }
+    }
+
+    /**
+     * Loads index saved by {@link #save(Path)}.
+     * @param path - file to read index from
+     * @return loaded index
+     * @throws IOException if file can not be read or is not an index
+     */
+    public static SparseRowIndex load(Path path) throws IOException {
+        try (DataInputStream is = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (is.readInt() != MAGIC) throw new IOException("Not a row index: "+path);
+            long length = is.readLong();
+            long rowCount = is.readLong();
+            int stride = is.readInt();
+            int size = is.readInt();
+            long[] rows = new long[size];
+            long[] offsets = new long[size];
+            for (int i = 0; i < size; i++) {
+                rows[i] = readVarLong(is) + (i == 0 ? 0 : rows[i - 1]);
+                offsets[i] = readVarLong(is) + (i == 0 ? 0 : offsets[i - 1]);
+            }
+            return new SparseRowIndex(length, rowCount, stride, rows, offsets);
+        }
+    }
+
+    private static void writeVarLong(DataOutputStream os, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            os.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        os.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInputStream is) throws IOException {
+        long result = 0;
+        for (int shift = 0; ; shift += 7) {
+            int b = is.readUnsignedByte();
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return result;
+        }
+    }
+
+    @Override
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getStride() {
+        return stride;
+    }
+
+    private static class ChunkIndex {
+        long rowCount = 0;
+        int size = 0;
+        long[] offsets = new long[16];
+
+        void add(long offset) {
+            if (size == offsets.length) offsets = Arrays.copyOf(offsets, 2 * size);
+            offsets[size++] = offset;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package uk.elementarysoftware.quickcsv.parser;
+
+import java.lang.reflect.Method;
+
+/**
+ * Creates threads for reading and parsing stages. Virtual threads are looked up reflectively, so that the library
+ * still runs on Java 8, and platform threads are used when virtual threads are not available.
+ */
+final class Threads {
+
+    private static final Method OF_VIRTUAL = lookupOfVirtual();
+
+    private Threads() {
+    }
+
+    private static Method lookupOfVirtual() {
+        try {
+            return Thread.class.getMethod("ofVirtual");
+        } catch (NoSuchMethodException | SecurityException e) {
+            return null;
+        }
+    }
+
+    static boolean isVirtualAvailable() {
+        return OF_VIRTUAL != null;
+    }
+
+    /**
+     * @return unstarted thread, virtual if requested and available, daemon platform thread otherwise
+     */
+    static Thread newThread(Runnable task, String name, boolean isVirtual) {
+        if (isVirtual && OF_VIRTUAL != null) {
+            try {
+                Object builder = OF_VIRTUAL.invoke(null);
+                Method unstarted = OF_VIRTUAL.getReturnType().getMethod("unstarted", Runnable.class);
+                Thread thread = (Thread) unstarted.invoke(builder, task);
+                thread.setName(name);
+                return thread;
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                //fall back to platform thread
+            }
+        }
+        Thread thread = new Thread(task, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+}
@@ -4,6 +4,7 @@ import static org.junit.Assert.assertEquals;
 
 import java.io.File;
 import java.net.URI;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
 
 import org.apache.commons.io.FileUtils;
@@ -43,6 +44,18 @@ public class HttpStreamTest {
 		}
 	}
 
+	@Test
+	public void testParseHttpResourceWithReadCoalescing() throws Exception {
+		CSVParser<City> coalescingParser = CSVParserBuilder.aParser(City.MAPPER).usingReadCoalescing(100, TimeUnit.MILLISECONDS).build();
+		CloseableHttpClient httpclient = HttpClients.createDefault();
+		HttpGet httpGet = new HttpGet(httpServer.getURI().resolve(testFile.getName()));
+		CloseableHttpResponse response = httpclient.execute(httpGet);
+		
+		try(Stream<City> stream = coalescingParser.parse(response.getEntity().getContent())) {
+			assertEquals(FileUtils.readLines(testFile, "UTF-8").size(), stream.count());
+		}
+	}
+
 	static class FileServer extends ExternalResource {
 		
 		private Server server;
@@ -2,12 +2,56 @@ package uk.elementarysoftware.quickcsv.integration;
 
 import static org.junit.Assert.*;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.Pipe;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
 
 import org.junit.Test;
 
+import uk.elementarysoftware.quickcsv.api.ByteArraySource;
+import uk.elementarysoftware.quickcsv.api.CSVCursor;
+import uk.elementarysoftware.quickcsv.api.CSVParser;
 import uk.elementarysoftware.quickcsv.api.CSVParserBuilder;
+import uk.elementarysoftware.quickcsv.api.CSVRecord;
+import uk.elementarysoftware.quickcsv.api.CSVSplitPlanner;
+import uk.elementarysoftware.quickcsv.api.CSVSplitPlanner.Split;
+import uk.elementarysoftware.quickcsv.api.RowIndex;
+import uk.elementarysoftware.quickcsv.parser.IOStatistics;
 import uk.elementarysoftware.quickcsv.parser.simple.StraightForwardParser;
 import uk.elementarysoftware.quickcsv.sampledomain.City;
 
@@ -36,6 +80,725 @@ public class IntegrationTest {
         assertArrayEquals(s1.toArray(), s2.sequential().toArray());
     }
     
+    @Test
+    public void testMemoryMapped() throws Exception {
+        Stream<City> s1 = new StraightForwardParser().parse(inputDos).map(City.MAPPER);
+        Object[] expected = s1.toArray();
+        for (int i = 0; i < bufferSizesToTest.length; i++) {
+            Stream<City> s2 = CSVParserBuilder.aParser(City.MAPPER).usingBufferSize(bufferSizesToTest[i]).build().parse(inputDos.toPath());
+            assertArrayEquals(expected, s2.toArray());
+        }
+    }
+    
+    @Test
+    public void testPositionalRead() throws Exception {
+        Stream<City> s1 = new StraightForwardParser().parse(inputDos).map(City.MAPPER);
+        Object[] expected = s1.toArray();
+        try (FileChannel channel = FileChannel.open(inputDos.toPath(), StandardOpenOption.READ)) {
+            for (int i = 0; i < bufferSizesToTest.length; i++) {
+                Stream<City> s2 = CSVParserBuilder.aParser(City.MAPPER).usingBufferSize(bufferSizesToTest[i]).build().parse(channel);
+                assertArrayEquals(expected, s2.toArray());
+            }
+        }
+    }
+    
+    @Test
+    public void testInMemory() throws Exception {
+        Stream<City> s1 = new StraightForwardParser().parse(inputDos).map(City.MAPPER);
+        Object[] expected = s1.toArray();
+        byte[] content = Files.readAllBytes(inputDos.toPath());
+        byte[] padded = new byte[content.length + 20];
+        System.arraycopy(content, 0, padded, 10, content.length);
+        ByteBuffer direct = ByteBuffer.allocateDirect(content.length);
+        direct.put(content).flip();
+        for (int i = 0; i < bufferSizesToTest.length; i++) {
+            CSVParser<City> parser = CSVParserBuilder.aParser(City.MAPPER).usingBufferSize(bufferSizesToTest[i]).build();
+            assertArrayEquals(expected, parser.parse(content).toArray());
+            assertArrayEquals(expected, parser.parse(padded, 10, content.length).toArray());
+            assertArrayEquals(expected, parser.parse(ByteBuffer.wrap(padded, 10, content.length)).toArray());
+            assertArrayEquals(expected, parser.parse(direct).toArray());
+        }
+    }
+    
+    @Test
+    public void testByteRanges() throws Exception {
+        Stream<City> s1 = new StraightForwardParser().parse(inputDos).map(City.MAPPER);
+        Object[] expected = s1.toArray();
+        long length = inputDos.length();
+        long[][] boundaries = new long[][] {{0, length}, {0, 1, 2, 3, length}, {0, length / 3, length / 2, length + 100}};
+        for (long[] b : boundaries) {
+            CSVParser<City> parser = CSVParserBuilder.aParser(City.MAPPER).usingBufferSize(11_111).build();
+            List<City> actual = new ArrayList<>();
+            for (int i = 0; i < b.length - 1; i++) {
+                actual.addAll(parser.parse(inputDos.toPath(), b[i], b[i + 1]).collect(Collectors.toList()));
+            }
+            assertArrayEquals(expected, actual.toArray());
+        }
+    }
+    
+    @Test
+    public void testDefaultByteRanges() throws Exception {
+        CSVParser<CSVRecord> parser = new StraightForwardParser();
+        Object[] expected = parser.parse(inputDos).map(City.MAPPER).toArray();
+        long length = inputDos.length();
+        long[] b = new long[] {0, 1, length / 3, length / 2, length + 100};
+        List<City> actual = new ArrayList<>();
+        for (int i = 0; i < b.length - 1; i++) {
+            try (Stream<CSVRecord> s = parser.parse(inputDos.toPath(), b[i], b[i + 1])) {
+                actual.addAll(s.map(City.MAPPER).collect(Collectors.toList()));
+            }
+        }
+        assertArrayEquals(expected, actual.toArray());
+    }
+    
+    @Test
+    public void testDefaultBatches() throws Exception {
+        CSVParser<CSVRecord> parser = new StraightForwardParser();
+        Object[] expected = parser.parse(inputDos).map(City.MAPPER).toArray();
+        try (Stream<List<CSVRecord>> batches = parser.parseBatches(inputDos.toPath())) {
+            assertArrayEquals(expected, batches.flatMap(List::stream).map(City.MAPPER).toArray());
+        }
+    }
+    
+    @Test
+    public void testDefaultForEachRecord() throws Exception {
+        CSVParser<CSVRecord> parser = new StraightForwardParser();
+        Object[] expected = parser.parse(inputDos).map(City.MAPPER).toArray();
+        List<City> actual = new ArrayList<>();
+        parser.forEachRecord(inputDos.toPath(), r -> actual.add(City.MAPPER.apply(r)));
+        assertArrayEquals(expected, actual.toArray());
+    }
+    
+    @Test
+    public void testDefaultCursor() throws Exception {
+        CSVParser<CSVRecord> parser = new StraightForwardParser();
+        List<String> expected = Files.readAllLines(inputDos.toPath());
+        try (CSVCursor cursor = parser.openCursor(inputDos.toPath())) {
+            for (String line : expected) {
+                assertTrue(cursor.next());
+                String[] fields = line.split(",");
+                assertEquals(fields.length, cursor.fieldCount());
+                assertEquals(fields[0], cursor.getString(0));
+                assertEquals(fields[fields.length - 1], cursor.getString(fields.length - 1));
+            }
+            assertFalse(cursor.next());
+        }
+    }
+    
+    @Test
+    public void testDefaultParseAndReduce() throws Exception {
+        CSVParser<CSVRecord> parser = new StraightForwardParser();
+        List<City> expected = parser.parse(inputDos).map(City.MAPPER).collect(Collectors.toList());
+        List<City> actual = parser.parseAndReduce(inputDos.toPath(), ArrayList::new, (l, r) -> l.add(City.MAPPER.apply(r)), 
+                (l1, l2) -> { l1.addAll(l2); return l1; });
+        assertEquals(expected, actual);
+    }
+    
+    @Test
+    public void testSizeEstimate() throws Exception {
+        long expected = new StraightForwardParser().parse(inputDos).count();
+        for (int i = 0; i < bufferSizesToTest.length; i++) {
+            CSVParser<City> parser = CSVParserBuilder.aParser(City.MAPPER).usingBufferSize(bufferSizesToTest[i]).build();
+            long estimate = parser.parse(inputDos.toPath()).spliterator().estimateSize();
+            assertTrue("Estimate "+estimate+" for "+expected+" records", Math.abs(estimate - expected) < expected / 5);
+            estimate = parser.parse(Arrays.asList(inputDos.toPath(), inputUnix.toPath())).spliterator().estimateSize();
+            assertTrue("Estimate "+estimate+" for "+2 * expected+" records", Math.abs(estimate - 2 * expected) < 2 * expected / 5);
+        }
+    }
+    
+    @Test
+    public void testSplitPlanner() throws Exception {
+        Stream<City> s1 = new StraightForwardParser().parse(inputDos).map(City.MAPPER);
+        Object[] expected = s1.toArray();
+        byte[] content = Files.readAllBytes(inputDos.toPath());
+        CSVParser<City> parser = CSVParserBuilder.aParser(City.MAPPER).build();
+        for (long target : new long[] {10_000, 111_111, content.length, 2L * content.length}) {
+            List<Split> splits = CSVSplitPlanner.plan(inputDos.toPath(), target);
+            List<City> actual = new ArrayList<>();
+            long position = 0;
+            for (Split split : splits) {
+                assertEquals(position, split.start);
+                assertTrue(split.end == content.length || content[(int) split.end - 1] == '\n');
+                actual.addAll(parser.parse(inputDos.toPath(), split.start, split.end).collect(Collectors.toList()));
+                position = split.end;
+            }
+            assertEquals(content.length, position);
+            assertArrayEquals(expected, actual.toArray());
+        }
+    }
+    
+    @Test
+    public void testSplitPlannerMatchesParserRecordStarts() throws Exception {
+        String[] contents = {"a,1\rb,2\rc,3\rd,4\re,5\r", "a,1\n\n\n\nb,2\r\n\r\nc,3\n\n\nd,4\n"};
+        CSVParser<String> parser = CSVParserBuilder.aParser(r -> r.getNextField().asString()).build();
+        for (String content : contents) {
+            Path file = Files.createTempFile("split", ".csv");
+            try {
+                byte[] bytes = content.getBytes(StandardCharsets.US_ASCII);
+                Files.write(file, bytes);
+                List<String> expected = parser.parse(file).collect(Collectors.toList());
+                List<Split> splits = CSVSplitPlanner.plan(file, 4);
+                assertTrue(splits.size() > 1);
+                List<String> actual = new ArrayList<>();
+                for (Split split : splits) {
+                    if (split.start > 0) {
+                        assertTrue(bytes[(int) split.start - 1] == '\r' || bytes[(int) split.start - 1] == '\n');
+                        assertTrue(bytes[(int) split.start] != '\r' && bytes[(int) split.start] != '\n');
+                    }
+                    actual.addAll(parser.parse(file, split.start, split.end).collect(Collectors.toList()));
+                }
+                assertEquals(expected, actual);
+            } finally {
+                Files.delete(file);
+            }
+        }
+    }
+    
+    @Test
+    public void testRowIndex() throws Exception {
+        Stream<City> s1 = new StraightForwardParser().parse(inputDos).map(City.MAPPER);
+        List<City> expected = s1.collect(Collectors.toList());
+        Path sidecar = Files.createTempFile("cities-dos", ".idx");
+        try {
+            RowIndex.build(inputDos.toPath(), 1000).save(sidecar);
+            RowIndex index = RowIndex.load(sidecar);
+            assertEquals(expected.size(), index.getRowCount());
+            CSVParser<City> parser = CSVParserBuilder.aParser(City.MAPPER).usingBufferSize(11_111).build();
+            int n = expected.size();
+            int[][] ranges = new int[][] {{0, n}, {0, 1}, {999, 1001}, {1000, 1000}, {12_345, 23_456}, {n - 1, n + 10}, {n + 5, n + 10}};
+            for (int[] r : ranges) {
+                Stream<City> s2 = parser.parse(inputDos.toPath(), index, r[0], r[1]);
+                assertArrayEquals(expected.subList(Math.min(r[0], n), Math.min(r[1], n)).toArray(), s2.toArray());
+            }
+        } finally {
+            Files.delete(sidecar);
+        }
+    }
+    
+    @Test
+    public void testSkipAndMaxRecords() throws Exception {
+        Stream<City> s1 = new StraightForwardParser().parse(inputDos).map(City.MAPPER);
+        List<City> expected = s1.collect(Collectors.toList());
+        byte[] content = Files.readAllBytes(inputDos.toPath());
+        int n = expected.size();
+        long[][] cases = new long[][] {{0, 0}, {0, 1}, {1, 10}, {0, n}, {100, 10_000}, {n - 1, 100}, {n, 1}, {12_345, Long.MAX_VALUE}};
+        for (int i = 0; i < bufferSizesToTest.length; i++) {
+            for (long[] c : cases) {
+                AtomicInteger mapped = new AtomicInteger();
+                CSVParser<City> parser = CSVParserBuilder.aParser(r -> {
+                    mapped.incrementAndGet();
+                    return City.MAPPER.apply(r);
+                }).usingBufferSize(bufferSizesToTest[i]).skipRecords(c[0]).maxRecords(c[1]).build();
+                Object[] expectedPart = expected.subList((int) c[0], (int) Math.min(n, c[0] + Math.min(n, c[1]))).toArray();
+                assertArrayEquals(expectedPart, parser.parse(inputDos).toArray());
+                assertArrayEquals(expectedPart, parser.parse(inputDos.toPath()).toArray());
+                assertArrayEquals(expectedPart, parser.parse(content).toArray());
+                assertEquals(3 * expectedPart.length, mapped.get());
+            }
+        }
+    }
+    
+    @Test
+    public void testSkipManyBuffers() throws Exception {
+        byte[] content = manyLines(400_000);
+        CSVParser<Integer> parser = CSVParserBuilder.aParser(r -> r.getNextField().asInt()).usingBufferSize(256)
+                .skipRecords(390_000).build();
+        Iterator<Integer> it = parser.parse(new ByteArrayInputStream(content)).iterator();
+        assertEquals(390_000, (int) it.next());
+        assertEquals(10_000, parser.parse(new ByteArrayInputStream(content)).sequential().count());
+        Path file = Files.createTempFile("many-lines", ".csv");
+        try {
+            Files.write(file, content);
+            assertEquals(390_000, (int) parser.parse(file).iterator().next());
+        } finally {
+            Files.delete(file);
+        }
+        try (CSVCursor cursor = parser.openCursor(new ByteArrayInputStream(content))) {
+            assertTrue(cursor.next());
+            assertEquals(390_000, cursor.getInt(0));
+        }
+    }
+    
+    @Test
+    public void testMaxRecordsStopsReading() throws Exception {
+        AtomicLong bytesRead = new AtomicLong();
+        try (InputStream is = new FilterInputStream(new FileInputStream(inputDos)) {
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                int read = super.read(b, off, len);
+                if (read > 0) bytesRead.addAndGet(read);
+                return read;
+            }
+        }) {
+            Stream<City> s1 = CSVParserBuilder.aParser(City.MAPPER).usingBufferSize(11_111).maxRecords(10).build().parse(is);
+            assertEquals(10, s1.count());
+        }
+        assertTrue(bytesRead.get() < 2 * 11_111);
+    }
+    
+    @Test
+    public void testCancellationOnClose() throws Exception {
+        AtomicInteger chunksInUse = new AtomicInteger();
+        AtomicBoolean isClosed = new AtomicBoolean(false);
+        byte[] lines = Files.readAllBytes(inputUnix.toPath());
+        ByteArraySource endless = new ByteArraySource() {
+            @Override
+            public ByteArrayChunk getNext() {
+                chunksInUse.incrementAndGet();
+                return new ByteArrayChunk(lines, 10_000, false, b -> chunksInUse.decrementAndGet());
+            }
+            
+            @Override
+            public void close() {
+                isClosed.set(true);
+            }
+        };
+        Stream<City> s1 = CSVParserBuilder.aParser(City.MAPPER).build().parse(endless).sequential();
+        Iterator<City> it = s1.iterator();
+        for (int i = 0; i < 1000; i++) it.next();
+        s1.close();
+        assertTrue(isClosed.get());
+        assertFalse(it.hasNext());
+        assertEquals(0, chunksInUse.get());
+    }
+    
+    @Test
+    public void testPipeline() throws Exception {
+        Stream<City> s1 = new StraightForwardParser().parse(inputDos).map(City.MAPPER);
+        Object[] expected = s1.toArray();
+        for (int i = 0; i < bufferSizesToTest.length; i++) {
+            CSVParser<City> parser = CSVParserBuilder.aParser(City.MAPPER).usingBufferSize(bufferSizesToTest[i]).usingPipeline(3).build();
+            try (InputStream is = new FileInputStream(inputDos); Stream<City> s2 = parser.parse(is)) {
+                assertArrayEquals(expected, s2.toArray());
+            }
+        }
+    }
+    
+    @Test
+    public void testPipelineCancellationOnClose() throws Exception {
+        AtomicInteger chunksInUse = new AtomicInteger();
+        AtomicBoolean isClosed = new AtomicBoolean(false);
+        byte[] lines = Files.readAllBytes(inputUnix.toPath());
+        ByteArraySource endless = new ByteArraySource() {
+            @Override
+            public ByteArrayChunk getNext() {
+                chunksInUse.incrementAndGet();
+                return new ByteArrayChunk(lines, 10_000, false, b -> chunksInUse.decrementAndGet());
+            }
+            
+            @Override
+            public void close() {
+                isClosed.set(true);
+            }
+        };
+        Stream<City> s1 = CSVParserBuilder.aParser(City.MAPPER).usingPipeline(2).build().parse(endless);
+        Iterator<City> it = s1.iterator();
+        for (int i = 0; i < 1000; i++) it.next();
+        s1.close();
+        assertTrue(isClosed.get());
+        long deadline = System.currentTimeMillis() + 5000;
+        while (chunksInUse.get() > 0 && System.currentTimeMillis() < deadline) Thread.sleep(10); //parsing threads stop asynchronously
+        assertEquals(0, chunksInUse.get());
+    }
+    
+    @Test
+    public void testVirtualThreads() throws Exception {
+        Stream<City> s1 = new StraightForwardParser().parse(inputDos).map(City.MAPPER);
+        List<City> expected = s1.collect(Collectors.toList());
+        byte[] content = Files.readAllBytes(inputDos.toPath());
+        CSVParser<City> parser = CSVParserBuilder.aParser(City.MAPPER).usingBufferSize(11_111).usingVirtualThreads().build();
+        List<Thread> threads = new ArrayList<>();
+        List<Throwable> failures = Collections.synchronizedList(new ArrayList<>());
+        for (int i = 0; i < 32; i++) {
+            threads.add(new Thread(() -> {
+                try (Stream<City> s2 = parser.parse(new ByteArrayInputStream(content))) {
+                    assertFalse(s2.isParallel());
+                    assertEquals(expected, s2.collect(Collectors.toList()));
+                } catch (Throwable e) {
+                    failures.add(e);
+                }
+            }));
+        }
+        for (Thread thread : threads) thread.start();
+        for (Thread thread : threads) thread.join();
+        assertEquals(Collections.emptyList(), failures);
+    }
+    
+    @Test
+    public void testBatches() throws Exception {
+        Stream<City> s1 = new StraightForwardParser().parse(inputDos).map(City.MAPPER);
+        List<City> expected = s1.collect(Collectors.toList());
+        for (int i = 0; i < bufferSizesToTest.length; i++) {
+            CSVParser<City> parser = CSVParserBuilder.aParser(City.MAPPER).usingBufferSize(bufferSizesToTest[i]).build();
+            List<List<City>> batches;
+            try (InputStream is = new FileInputStream(inputDos)) {
+                batches = parser.parseBatches(is).collect(Collectors.toList());
+            }
+            assertEquals(expected, batches.stream().flatMap(List::stream).collect(Collectors.toList()));
+            assertTrue(batches.stream().noneMatch(List::isEmpty));
+            if (bufferSizesToTest[i] < inputDos.length()) assertTrue(batches.size() > 1);
+            batches = parser.parseBatches(inputDos.toPath()).collect(Collectors.toList());
+            assertEquals(expected, batches.stream().flatMap(List::stream).collect(Collectors.toList()));
+            assertTrue(batches.stream().noneMatch(List::isEmpty));
+        }
+    }
+    
+    @Test
+    public void testForEachRecord() throws Exception {
+        Stream<City> s1 = new StraightForwardParser().parse(inputDos).map(City.MAPPER);
+        List<City> expected = s1.collect(Collectors.toList());
+        Thread caller = Thread.currentThread();
+        for (int i = 0; i < bufferSizesToTest.length; i++) {
+            CSVParser<City> parser = CSVParserBuilder.aParser(City.MAPPER).usingBufferSize(bufferSizesToTest[i]).build();
+            List<City> actual = new ArrayList<>();
+            try (InputStream is = new FileInputStream(inputDos)) {
+                parser.forEachRecord(is, r -> {
+                    assertSame(caller, Thread.currentThread());
+                    actual.add(new City(r));
+                });
+            }
+            assertEquals(expected, actual);
+            actual.clear();
+            parser.forEachRecord(inputDos.toPath(), r -> actual.add(new City(r)));
+            assertEquals(expected, actual);
+        }
+    }
+    
+    @Test
+    public void testForEachRecordManySmallBuffers() throws Exception {
+        Path file = Files.createTempFile("many-lines", ".csv");
+        try {
+            Files.write(file, manyLines(400_000));
+            CSVParser<City> parser = CSVParserBuilder.aParser(City.MAPPER).usingBufferSize(256).build();
+            AtomicLong sum = new AtomicLong();
+            try (InputStream is = Files.newInputStream(file)) {
+                parser.forEachRecord(is, r -> sum.addAndGet(r.getNextField().asInt()));
+            }
+            parser.forEachRecord(file, r -> sum.addAndGet(r.getNextField().asInt()));
+            assertEquals(2 * (400_000L * 399_999 / 2), sum.get());
+        } finally {
+            Files.delete(file);
+        }
+    }
+    
+    static byte[] manyLines(int n) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < n; i++) {
+            sb.append(i).append(",x\n");
+        }
+        return sb.toString().getBytes();
+    }
+    
+    @Test
+    public void testParseAndReduce() throws Exception {
+        List<City> cities = new StraightForwardParser().parse(inputDos).map(City.MAPPER).collect(Collectors.toList());
+        long[] expected = new long[] {cities.size(), cities.stream().mapToLong(City::getPopulation).sum()};
+        for (int i = 0; i < bufferSizesToTest.length; i++) {
+            CSVParser<City> parser = CSVParserBuilder.aParser(City.MAPPER).usingBufferSize(bufferSizesToTest[i]).build();
+            try (InputStream is = new FileInputStream(inputDos)) {
+                assertArrayEquals(expected, countAndSumPopulation(parser, is));
+            }
+            assertArrayEquals(expected, parser.parseAndReduce(inputDos.toPath(), () -> new long[2], 
+                    IntegrationTest::countAndAddPopulation, IntegrationTest::merge));
+            CSVParser<City> pipelined = CSVParserBuilder.aParser(City.MAPPER).usingBufferSize(bufferSizesToTest[i]).usingPipeline(2).build();
+            try (InputStream is = new FileInputStream(inputDos)) {
+                assertArrayEquals(expected, countAndSumPopulation(pipelined, is));
+            }
+        }
+        CSVParser<City> parser = CSVParserBuilder.aParser(City.MAPPER).build();
+        assertArrayEquals(new long[2], countAndSumPopulation(parser, new ByteArrayInputStream(new byte[0])));
+    }
+    
+    private static long[] countAndSumPopulation(CSVParser<City> parser, InputStream is) {
+        return parser.parseAndReduce(is, () -> new long[2], IntegrationTest::countAndAddPopulation, IntegrationTest::merge);
+    }
+    
+    private static void countAndAddPopulation(long[] acc, CSVRecord r) {
+        r.skipFields(4);
+        acc[0]++;
+        acc[1] += r.getNextField().asInt();
+    }
+    
+    private static long[] merge(long[] a, long[] b) {
+        a[0] += b[0];
+        a[1] += b[1];
+        return a;
+    }
+    
+    @Test
+    public void testCursor() throws Exception {
+        Stream<City> s1 = new StraightForwardParser().parse(inputDos).map(City.MAPPER);
+        List<City> expected = s1.collect(Collectors.toList());
+        for (int i = 0; i < bufferSizesToTest.length; i++) {
+            CSVParser<City> parser = CSVParserBuilder.aParser(City.MAPPER).usingBufferSize(bufferSizesToTest[i]).build();
+            try (InputStream is = new FileInputStream(inputDos); CSVCursor cursor = parser.openCursor(is)) {
+                assertEquals(expected, readCities(cursor));
+                assertFalse(cursor.next());
+            }
+            try (CSVCursor cursor = parser.openCursor(inputDos.toPath())) {
+                assertEquals(expected, readCities(cursor));
+            }
+        }
+    }
+    
+    private static List<City> readCities(CSVCursor cursor) {
+        List<City> result = new ArrayList<>();
+        while (cursor.next()) {
+            assertEquals(7, cursor.fieldCount());
+            result.add(new City(cursor.getString(2), cursor.getInt(4), cursor.getDouble(5), cursor.getDouble(6), cursor.getLong(4)));
+        }
+        return result;
+    }
+    
+    @Test
+    public void testCursorsInLockStep() throws Exception {
+        CSVParser<City> parser = CSVParserBuilder.aParser(City.MAPPER).usingBufferSize(1024).build();
+        long expected = new StraightForwardParser().parse(inputDos).count();
+        long count = 0;
+        try (CSVCursor dos = parser.openCursor(inputDos.toPath()); 
+                InputStream is = new FileInputStream(inputUnix); CSVCursor unix = parser.openCursor(is)) {
+            while (dos.next()) {
+                assertTrue(unix.next());
+                assertEquals(dos.fieldCount(), unix.fieldCount());
+                for (int i = 0; i < dos.fieldCount(); i++) {
+                    assertEquals(dos.getString(i), unix.getString(i));
+                }
+                count++;
+            }
+            assertFalse(unix.next());
+        }
+        assertEquals(expected, count);
+    }
+    
+    @Test
+    public void testCursorFieldAccess() throws Exception {
+        CSVParser<City> parser = CSVParserBuilder.aParser(City.MAPPER).build();
+        try (CSVCursor cursor = parser.openCursor(new ByteArrayInputStream("a,,1\n".getBytes()))) {
+            try {
+                cursor.field(0);
+                fail();
+            } catch (IllegalStateException e) {
+                //not positioned on a record
+            }
+            assertTrue(cursor.next());
+            assertEquals(3, cursor.fieldCount());
+            assertEquals("a", cursor.getString(0));
+            assertTrue(cursor.isEmpty(1));
+            assertEquals(1, cursor.getInt(2));
+            try {
+                cursor.field(3);
+                fail();
+            } catch (IndexOutOfBoundsException e) {
+                //no such field
+            }
+            assertFalse(cursor.next());
+        }
+    }
+    
+    @Test
+    public void testMultipleFiles() throws Exception {
+        Stream<City> s1 = new StraightForwardParser().parse(inputDos).map(City.MAPPER);
+        Stream<City> s2 = new StraightForwardParser().parse(inputUnix).map(City.MAPPER);
+        List<City> dos = s1.collect(Collectors.toList());
+        List<City> expected = new ArrayList<>(dos);
+        expected.addAll(s2.collect(Collectors.toList()));
+        expected.addAll(dos);
+        List<Path> paths = Arrays.asList(inputDos.toPath(), inputUnix.toPath(), inputDos.toPath());
+        for (int i = 0; i < bufferSizesToTest.length; i++) {
+            Stream<City> s3 = CSVParserBuilder.aParser(City.MAPPER).usingBufferSize(bufferSizesToTest[i]).build().parse(paths);
+            assertArrayEquals(expected.toArray(), s3.toArray());
+        }
+    }
+    
+    @Test
+    public void testReadableByteChannel() throws Exception {
+        Stream<City> s1 = new StraightForwardParser().parse(inputDos).map(City.MAPPER);
+        Object[] expected = s1.toArray();
+        for (int i = 0; i < bufferSizesToTest.length; i++) {
+            try (ReadableByteChannel channel = Channels.newChannel(new FileInputStream(inputDos))) {
+                Stream<City> s2 = CSVParserBuilder.aParser(City.MAPPER).usingBufferSize(bufferSizesToTest[i]).build().parse(channel);
+                assertArrayEquals(expected, s2.toArray());
+            }
+        }
+        Pipe pipe = Pipe.open();
+        Thread writer = new Thread(() -> {
+            try (WritableByteChannel sink = pipe.sink()) {
+                sink.write(ByteBuffer.wrap(Files.readAllBytes(inputDos.toPath())));
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        writer.start();
+        try (ReadableByteChannel source = pipe.source()) {
+            Stream<City> s3 = CSVParserBuilder.aParser(City.MAPPER).usingBufferSize(11_111)
+                    .usingReadCoalescing(1, TimeUnit.MINUTES).build().parse(source);
+            assertArrayEquals(expected, s3.toArray());
+        }
+        writer.join();
+        Pipe tricklingPipe = Pipe.open();
+        Thread tricklingWriter = new Thread(() -> {
+            try (WritableByteChannel sink = tricklingPipe.sink()) {
+                ByteBuffer content = ByteBuffer.wrap(Files.readAllBytes(inputDos.toPath()));
+                while (content.hasRemaining()) {
+                    ByteBuffer piece = content.slice();
+                    piece.limit(Math.min(37, piece.remaining()));
+                    content.position(content.position() + sink.write(piece));
+                }
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        tricklingWriter.start();
+        try (ReadableByteChannel source = tricklingPipe.source()) {
+            Stream<City> s4 = CSVParserBuilder.aParser(City.MAPPER).usingBufferSize(11_111).build().parse(source);
+            assertArrayEquals(expected, s4.toArray());
+        }
+        tricklingWriter.join();
+    }
+    
+    @Test
+    public void testReadAhead() throws Exception {
+        Stream<City> s1 = new StraightForwardParser().parse(inputDos).map(City.MAPPER);
+        Object[] expected = s1.toArray();
+        for (int i = 0; i < bufferSizesToTest.length; i++) {
+            IOStatistics statistics = new IOStatistics();
+            try (Stream<City> s2 = CSVParserBuilder.aParser(City.MAPPER).usingBufferSize(bufferSizesToTest[i])
+                    .usingReadAhead(4).usingStatistics(statistics).build().parse(inputDos)) {
+                assertArrayEquals(expected, s2.toArray());
+            }
+            assertTrue(statistics.getChunksRead() > 0);
+        }
+        byte[] content = Files.readAllBytes(inputDos.toPath());
+        Pipe pipe = Pipe.open();
+        try (WritableByteChannel sink = pipe.sink(); ReadableByteChannel source = pipe.source()) {
+            sink.write(ByteBuffer.wrap(content, 0, 3000));
+            try (Stream<City> s3 = CSVParserBuilder.aParser(City.MAPPER).usingBufferSize(1024).usingReadAhead(2).build().parse(source)) {
+                assertEquals(expected[0], s3.iterator().next());
+                Thread.sleep(100); //reader is blocked on the pipe
+            }
+            assertTrue(source.isOpen());
+        }
+    }
+    
+    @Test
+    public void testMaxBuffersInFlight() throws Exception {
+        Stream<City> s1 = new StraightForwardParser().parse(inputDos).map(City.MAPPER);
+        Object[] expected = s1.toArray();
+        byte[] bgzf = bgzf(Files.readAllBytes(inputDos.toPath()), 10_000);
+        for (int i = 0; i < bufferSizesToTest.length; i++) {
+            IOStatistics statistics = new IOStatistics();
+            CSVParserBuilder<City, ?> builder = CSVParserBuilder.aParser(City.MAPPER).usingBufferSize(bufferSizesToTest[i])
+                    .usingMaxBuffersInFlight(2).usingStatistics(statistics);
+            try (InputStream is = new FileInputStream(inputDos)) {
+                List<City> actual = new ArrayList<>();
+                builder.usingReadAhead(4).build().parse(is).forEachOrdered(actual::add);
+                assertArrayEquals(expected, actual.toArray());
+            }
+            try (InputStream is = new FileInputStream(inputDos)) {
+                assertArrayEquals(expected, builder.usingReadAhead(0).usingPipeline(4).build().parse(is).toArray());
+            }
+            assertArrayEquals(expected, builder.usingPipeline(0).build().parseGzip(new ByteArrayInputStream(bgzf)).toArray());
+            try (FileChannel channel = FileChannel.open(inputDos.toPath(), StandardOpenOption.READ)) {
+                assertArrayEquals(expected, builder.build().parse(channel).toArray());
+            }
+            assertArrayEquals(expected, builder.usingParallelism(1).build().parse(inputDos.toPath()).toArray());
+            try (FileChannel channel = FileChannel.open(inputDos.toPath(), StandardOpenOption.READ)) {
+                assertArrayEquals(expected, builder.build().parse(channel).toArray());
+            }
+            assertEquals(0, statistics.getBuffersInFlight());
+            assertTrue(statistics.getPeakBuffersInFlight() <= 2);
+        }
+    }
+    
+    @Test
+    public void testUnordered() throws Exception {
+        Map<City, Long> expected = new StraightForwardParser().parse(inputDos).map(City.MAPPER)
+                .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+        for (int i = 0; i < bufferSizesToTest.length; i++) {
+            CSVParser<City> parser = CSVParserBuilder.aParser(City.MAPPER).usingBufferSize(bufferSizesToTest[i]).unordered().build();
+            try (InputStream is = new FileInputStream(inputDos)) {
+                Stream<City> s2 = parser.parse(is);
+                assertFalse(s2.spliterator().hasCharacteristics(Spliterator.ORDERED));
+            }
+            try (InputStream is = new FileInputStream(inputDos)) {
+                assertEquals(expected, parser.parse(is).collect(Collectors.groupingBy(Function.identity(), Collectors.counting())));
+            }
+            assertEquals(expected, parser.parse(inputDos).collect(Collectors.groupingBy(Function.identity(), Collectors.counting())));
+        }
+    }
+    
+    @Test
+    public void testExecutor() throws Exception {
+        Stream<City> s1 = new StraightForwardParser().parse(inputDos).map(City.MAPPER);
+        Object[] expected = s1.toArray();
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            Set<ForkJoinPool> pools = ConcurrentHashMap.newKeySet();
+            CSVParser<City> parser = CSVParserBuilder.aParser(City.MAPPER).usingBufferSize(11_111).usingExecutor(pool).build();
+            Object[] actual = parser.parse(inputDos).peek(c -> pools.add(ForkJoinTask.getPool())).toArray();
+            assertArrayEquals(expected, actual);
+            assertEquals(Collections.singleton(pool), pools);
+            pools.clear();
+            try (InputStream is = new FileInputStream(inputDos)) {
+                assertEquals(expected.length, parser.parse(is).peek(c -> pools.add(ForkJoinTask.getPool())).mapToInt(c -> 1).sum());
+            }
+            assertEquals(Collections.singleton(pool), pools);
+            pools.clear();
+            byte[] bgzf = bgzf(Files.readAllBytes(inputDos.toPath()), 10_000);
+            assertArrayEquals(expected, parser.parseGzip(new ByteArrayInputStream(bgzf)).peek(c -> pools.add(ForkJoinTask.getPool())).toArray());
+            assertEquals(Collections.singleton(pool), pools);
+        } finally {
+            pool.shutdown();
+        }
+    }
+    
+    @Test
+    public void testParallelism() throws Exception {
+        Stream<City> s1 = new StraightForwardParser().parse(inputDos).map(City.MAPPER);
+        Object[] expected = s1.toArray();
+        Set<ForkJoinPool> pools = ConcurrentHashMap.newKeySet();
+        CSVParser<City> parser = CSVParserBuilder.aParser(City.MAPPER).usingBufferSize(11_111).usingParallelism(2).build();
+        assertArrayEquals(expected, parser.parse(inputDos).peek(c -> pools.add(ForkJoinTask.getPool())).toArray());
+        assertArrayEquals(expected, parser.parse(inputDos).peek(c -> pools.add(ForkJoinTask.getPool())).toArray());
+        byte[] bgzf = bgzf(Files.readAllBytes(inputDos.toPath()), 10_000);
+        assertArrayEquals(expected, parser.parseGzip(new ByteArrayInputStream(bgzf)).peek(c -> pools.add(ForkJoinTask.getPool())).toArray());
+        assertEquals(3, pools.size());
+        for (ForkJoinPool pool : pools) {
+            assertEquals(2, pool.getParallelism());
+            assertTrue(pool.isShutdown());
+        }
+    }
+    
+    @Test
+    public void testReadCoalescing() throws Exception {
+        Stream<City> s1 = new StraightForwardParser().parse(inputDos).map(City.MAPPER);
+        Object[] expected = s1.toArray();
+        IOStatistics statistics = new IOStatistics();
+        try (InputStream is = new TricklingInputStream(new FileInputStream(inputDos), 100)) {
+            Stream<City> s2 = CSVParserBuilder.aParser(City.MAPPER).usingBufferSize(11_111)
+                    .usingReadCoalescing(1, TimeUnit.MINUTES).usingStatistics(statistics).build().parse(is);
+            assertArrayEquals(expected, s2.toArray());
+        }
+        assertTrue(statistics.getFillRatio() > 0.9);
+    }
+    
+    @Test
+    public void testGzip() throws Exception {
+        Stream<City> s1 = new StraightForwardParser().parse(inputDos).map(City.MAPPER);
+        Object[] expected = s1.toArray();
+        byte[] content = Files.readAllBytes(inputDos.toPath());
+        byte[] bgzf = bgzf(content, 10_000);
+        ByteArrayOutputStream gzip = new ByteArrayOutputStream();
+        try (GZIPOutputStream os = new GZIPOutputStream(gzip)) {
+            os.write(content);
+        }
+        for (int i = 0; i < bufferSizesToTest.length; i++) {
+            CSVParser<City> parser = CSVParserBuilder.aParser(City.MAPPER).usingBufferSize(bufferSizesToTest[i]).build();
+            assertArrayEquals(expected, parser.parseGzip(new ByteArrayInputStream(bgzf)).toArray());
+            assertArrayEquals(expected, parser.parseGzip(new ByteArrayInputStream(gzip.toByteArray())).toArray());
+        }
+    }
+    
     @Test
     public void testDosVsUnix() throws Exception {
         Stream<City> s1 = CSVParserBuilder.aParser(City.MAPPER).build().parse(inputUnix);
@@ -43,4 +806,47 @@ public class IntegrationTest {
         assertArrayEquals(s1.toArray(), s2.sequential().toArray());
     }
     
-}
\ No newline at end of file
+    /** Compresses content into BGZF blocks followed by empty end of file block */
+    static byte[] bgzf(byte[] content, int blockSize) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (int offset = 0; offset <= content.length; offset += blockSize) {
+            int length = Math.min(blockSize, content.length - offset);
+            Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+            deflater.setInput(content, offset, length);
+            deflater.finish();
+            byte[] compressed = new byte[length + 1024];
+            int compressedLength = deflater.deflate(compressed);
+            deflater.end();
+            CRC32 crc = new CRC32();
+            crc.update(content, offset, length);
+            int total = 18 + compressedLength + 8;
+            out.write(new byte[] {0x1f, (byte) 0x8b, 8, 4, 0, 0, 0, 0, 0, (byte) 0xff, 6, 0, 'B', 'C', 2, 0}, 0, 16);
+            writeInt(out, total - 1, 2);
+            out.write(compressed, 0, compressedLength);
+            writeInt(out, crc.getValue(), 4);
+            writeInt(out, length, 4);
+            if (length == 0) break;
+        }
+        return out.toByteArray();
+    }
+    
+    private static void writeInt(ByteArrayOutputStream out, long value, int bytes) {
+        for (int i = 0; i < bytes; i++) out.write((int) (value >>> (8 * i)) & 0xff);
+    }
+    
+    /** Simulates network stream that returns limited amount of data per read */
+    static class TricklingInputStream extends FilterInputStream {
+        
+        private final int maxRead;
+
+        TricklingInputStream(InputStream in, int maxRead) {
+            super(in);
+            this.maxRead = maxRead;
+        }
+        
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            return super.read(b, off, Math.min(len, maxRead));
+        }
+    }
+}
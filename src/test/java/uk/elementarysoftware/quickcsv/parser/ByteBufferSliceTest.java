@@ -0,0 +1,81 @@
+package uk.elementarysoftware.quickcsv.parser;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import uk.elementarysoftware.quickcsv.api.Field;
+import uk.elementarysoftware.quickcsv.functional.Pair;
+
+public class ByteBufferSliceTest {
+    
+    private static final String FIELDS33 = "field11,field12,field13\nfield21,field22,field23\nfield31,field32,field33";
+    
+    @Test
+    public void testSplitOnLastLineEnd() {
+        ByteSlice slice = sliceFor("line1\nline2\nlastline");
+        slice.nextLine();
+        Pair<ByteSlice, ByteSlice> sliced = slice.splitOnLastLineEnd();
+        assertEquals("line2\n", sliced.first.toString());
+        assertEquals("lastline", sliced.second.toString());
+    }
+    
+    @Test
+    public void testFields() {
+        ByteSlice slice = sliceFor(FIELDS33);
+        assertEquals("field11,field12,field13", slice.currentLine());
+        List<Field> fields = new ArrayList<>();
+        while(true) {
+            ByteArrayField f = slice.nextField(',');
+            if (f == null) {
+                if (!slice.nextLine()) break;
+            } else {
+                fields.add(f.clone());
+            }
+        }
+        assertArrayEquals(
+                new String[] {"field11","field12","field13","field21","field22","field23","field31","field32","field33"}, 
+                fields.stream().map(f -> f.asString()).toArray());
+    }
+    
+    @Test
+    public void testFieldsRemainValidUntilNextLine() {
+        ByteSlice slice = sliceFor("12,34\n56,78");
+        ByteArrayField first = new ByteArrayField(null, 0, 0, Charset.defaultCharset());
+        first.initFrom(slice.nextField(','));
+        assertEquals(34, slice.nextField(',').asInt());
+        assertEquals(12, first.asInt());
+    }
+    
+    @Test
+    public void testQuotedFields() {
+        ByteSlice slice = sliceFor("f1,\"f2,f2\",f3,\"f\"\"4\"");
+        assertEquals("f1", slice.nextField(',', '"').asString());
+        assertEquals("f2,f2", slice.nextField(',', '"').asString());
+        assertEquals("f3", slice.nextField(',', '"').asString());
+        assertEquals("f\"4", slice.nextField(',', '"').asString());
+        assertNull(slice.nextField(',', '"'));
+    }
+    
+    @Test
+    public void testSkipQuoted() {
+        ByteSlice slice = sliceFor("f1,\"f2,f2\",f3");
+        slice.skipUntil(',', '"');
+        slice.skipUntil(',', '"');
+        assertEquals("f3", slice.nextField(',', '"').asString());
+    }
+    
+    private ByteSlice sliceFor(String content) {
+        byte[] bytes = content.getBytes();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length + 2);
+        buffer.put((byte) 'x').put(bytes).put((byte) 'x');
+        return new ByteBufferSlice(buffer, 1, bytes.length + 1, Charset.defaultCharset());
+    }
+}
@@ -147,6 +147,20 @@ public class ByteSliceTest {
         }
     }
     
+    @Test
+    public void testMultiSliceSkipQuoted() {
+        String content = "f1,a\"b,\"f3,f3\",f4";
+        for (int splitIndex = 0; splitIndex < content.length(); splitIndex++) {
+            String prefix = content.substring(0, splitIndex);
+            String suffix = content.substring(splitIndex);
+            ByteSlice join = ByteSlice.join(sliceFor(prefix.getBytes()), sliceFor(suffix.getBytes()));
+            assertTrue(join.skipUntil(',', '"'));
+            assertTrue(join.skipUntil(',', '"'));
+            assertTrue(join.skipUntil(',', '"'));
+            assertEquals("Failed on split index "+splitIndex, "f4", join.nextField(',', '"').asString());
+        }
+    }
+
     @Test
     public void testMultiSliceFieldSplitQuoted() {
         String content = QUOTED;
@@ -163,6 +177,23 @@ public class ByteSliceTest {
         }
     }
     
+    @Test
+    public void testAppend() {
+        byte[] buffer = new byte[16];
+        System.arraycopy("f1,f2".getBytes(), 0, buffer, 0, 5);
+        SingleByteSlice slice = new SingleByteSlice(new ByteArrayChunk(buffer, 5, false, (b) -> {}), Charset.defaultCharset());
+        slice.nextField(',');
+        SingleByteSlice appended = slice.append((SingleByteSlice) sliceFor("2,f".getBytes()));
+        assertTrue(appended.buffer == buffer);
+        assertEquals("f22,f", appended.toString());
+        for (int i = 3; i < 40; i++) {
+            appended = appended.append((SingleByteSlice) sliceFor(String.valueOf(i % 10).getBytes()));
+        }
+        assertTrue(appended.buffer != buffer);
+        assertEquals("f22,f3456789012345678901234567890123456789", appended.toString());
+        assertEquals("f22", appended.nextField(',').asString());
+    }
+    
     private ByteSlice sliceFor(byte[] bytes) {
         return ByteSlice.wrap(new ByteArrayChunk(bytes, bytes.length, false, (b) -> {}), Charset.defaultCharset());
     }
@@ -1,9 +1,13 @@
 package uk.elementarysoftware.quickcsv.parser;
 
 import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
 
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -35,6 +39,41 @@ public class TestParsingSpecialCases {
 		assertArrayEquals(new String[] {"a", "", ""}, result.get(0));
 	}
 	
+	@Test
+	public void testLineBreaksInQuotes() throws Exception {
+		StringBuilder csv = new StringBuilder();
+		List<String[]> expected = new ArrayList<>();
+		for (int i = 0; i < 100_000; i++) {
+			String text = i % 3 == 0 ? "line " + i + "\r\nnext, \"\"quoted\"\" text\nlast" : "single " + i;
+			csv.append(i).append(",\"").append(text).append("\",x").append(i).append("\r\n");
+			expected.add(new String[] {String.valueOf(i), text.replace("\"\"", "\""), "x" + i});
+		}
+		byte[] content = csv.toString().getBytes();
+		Path file = Files.createTempFile("quoted", ".csv");
+		try {
+			Files.write(file, content);
+			for (int bufferSize : new int[] {1024, 11_111, 1_000_000}) {
+				CSVParser<String[]> allFields = CSVParserBuilder.<String[], Fields>aParser(r -> new String[] {
+						r.getNextField().asString(), r.getNextField().asString(), r.getNextField().asString()
+				}).usingBufferSize(bufferSize).allowingLineBreaksInQuotes().build();
+				assertArrayEquals(expected.toArray(), allFields.parse(new ByteArrayInputStream(content)).toArray());
+				assertArrayEquals(expected.toArray(), allFields.parse(file).toArray());
+				CSVParser<String> firstField = CSVParserBuilder.<String, Fields>aParser(r -> r.getNextField().asString())
+						.usingBufferSize(bufferSize).allowingLineBreaksInQuotes().skipRecords(10).maxRecords(5000).build();
+				List<String> ids = expected.subList(10, 5010).stream().map(r -> r[0]).collect(Collectors.toList());
+				assertEquals(ids, firstField.parse(new ByteArrayInputStream(content)).collect(Collectors.toList()));
+				assertEquals(ids, firstField.parse(file).collect(Collectors.toList()));
+				List<String[]> ranges = new ArrayList<>();
+				for (int i = 0; i < 7; i++) {
+					allFields.parse(file, content.length * (long) i / 7, content.length * (i + 1L) / 7).forEachOrdered(ranges::add);
+				}
+				assertArrayEquals(expected.toArray(), ranges.toArray());
+			}
+		} finally {
+			Files.delete(file);
+		}
+	}
+	
 	static enum Fields {
 		A, B, C;
 	}
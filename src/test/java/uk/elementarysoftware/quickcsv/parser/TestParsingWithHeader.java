@@ -4,6 +4,10 @@ import static org.junit.Assert.*;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -11,7 +15,10 @@ import java.util.stream.Stream;
 
 import org.junit.Test;
 
+import uk.elementarysoftware.quickcsv.api.CSVParser;
 import uk.elementarysoftware.quickcsv.api.CSVParserBuilder;
+import uk.elementarysoftware.quickcsv.api.CSVRecordWithHeader;
+import uk.elementarysoftware.quickcsv.api.RowIndex;
 import uk.elementarysoftware.quickcsv.api.StandardMappers;
 import uk.elementarysoftware.quickcsv.sampledomain.City;
 
@@ -57,6 +64,79 @@ public class TestParsingWithHeader {
         assertArrayEquals(expected, actual);
     }
 
+    @Test
+    public void testMemoryMappedWithEnumApi() throws Exception {
+        Stream<City> cities = CSVParserBuilder.aParser(City.HeaderAwareMapper.MAPPER, City.HeaderAwareMapper.Fields.class)
+                .build().parse(input.toPath());
+        String[] actual = cities.map(c -> c.toString()).toArray(String[]::new);
+        assertArrayEquals(expected, actual);
+    }
+
+    @Test
+    public void testByteRangesWithEnumApi() throws Exception {
+        CSVParser<City> parser = CSVParserBuilder.aParser(City.HeaderAwareMapper.MAPPER, City.HeaderAwareMapper.Fields.class).build();
+        long length = input.length();
+        for (long split = 0; split <= length; split++) {
+            List<String> actual = new ArrayList<>();
+            parser.parse(input.toPath(), 0, split).map(c -> c.toString()).forEachOrdered(actual::add);
+            parser.parse(input.toPath(), split, length).map(c -> c.toString()).forEachOrdered(actual::add);
+            assertArrayEquals(expected, actual.toArray());
+        }
+    }
+    
+    @Test
+    public void testRowIndexWithEnumApi() throws Exception {
+        CSVParser<City> parser = CSVParserBuilder.aParser(City.HeaderAwareMapper.MAPPER, City.HeaderAwareMapper.Fields.class).build();
+        for (int stride = 1; stride <= 3; stride++) {
+            RowIndex index = RowIndex.build(input.toPath(), stride);
+            assertEquals(4, index.getRowCount());
+            for (int from = 0; from <= expected.length; from++) {
+                String[] actual = parser.parse(input.toPath(), index, from, expected.length).map(c -> c.toString()).toArray(String[]::new);
+                assertArrayEquals(Arrays.copyOfRange(expected, from, expected.length), actual);
+            }
+        }
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testForEachRecordWithEnumApi() throws Exception {
+        CSVParser<City> parser = CSVParserBuilder.aParser(City.HeaderAwareMapper.MAPPER, City.HeaderAwareMapper.Fields.class).build();
+        List<String> actual = new ArrayList<>();
+        parser.forEachRecord(input.toPath(), r -> 
+            actual.add(City.HeaderAwareMapper.MAPPER.apply((CSVRecordWithHeader<City.HeaderAwareMapper.Fields>) r).toString()));
+        assertArrayEquals(expected, actual.toArray());
+    }
+    
+    @Test
+    public void testSkipAndMaxRecordsWithEnumApi() throws Exception {
+        CSVParserBuilder<City, City.HeaderAwareMapper.Fields> builder = 
+                CSVParserBuilder.aParser(City.HeaderAwareMapper.MAPPER, City.HeaderAwareMapper.Fields.class).skipRecords(1).maxRecords(1);
+        String[] actual = builder.build().parse(input).map(c -> c.toString()).toArray(String[]::new);
+        assertArrayEquals(new String[] {expected[1]}, actual);
+        actual = builder.build().parse(input.toPath()).map(c -> c.toString()).toArray(String[]::new);
+        assertArrayEquals(new String[] {expected[1]}, actual);
+    }
+    
+    @Test
+    public void testMultipleFilesWithDifferentHeaders() throws Exception {
+        Path reordered = Files.createTempFile("cities-reordered", ".txt");
+        try {
+            List<String> lines = Files.readAllLines(input.toPath()).stream().map(line -> {
+                String[] fields = line.split(",", -1);
+                return String.join(",", fields[6], fields[5], fields[2], fields[4], fields[0], fields[1], fields[3]);
+            }).collect(Collectors.toList());
+            Files.write(reordered, lines);
+            Stream<City> cities = CSVParserBuilder.aParser(City.HeaderAwareMapper.MAPPER, City.HeaderAwareMapper.Fields.class)
+                    .build().parse(Arrays.asList(input.toPath(), reordered, input.toPath()));
+            String[] actual = cities.map(c -> c.toString()).toArray(String[]::new);
+            List<String> all = new ArrayList<>();
+            for (int i = 0; i < 3; i++) all.addAll(Arrays.asList(expected));
+            assertArrayEquals(all.toArray(), actual);
+        } finally {
+            Files.delete(reordered);
+        }
+    }
+
     @Test
     /**
      * Checks that we can skip records on parallel stream. That verifies that the stream is ordered by
@@ -1,9 +1,12 @@
 package uk.elementarysoftware.quickcsv.parser.simple;
 
+import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.util.function.Function;
 import java.util.stream.Stream;
@@ -52,7 +55,7 @@ public class StraightForwardParser implements CSVParser<CSVRecord> {
 
         @Override
         public Field getNextField() {
-            return new SimpleField(fields[index++]);
+            return index < fields.length ? new SimpleField(fields[index++]) : null;
         }
 
     }
@@ -128,7 +131,8 @@ public class StraightForwardParser implements CSVParser<CSVRecord> {
 
     @Override
     public Stream<CSVRecord> parse(InputStream is) {
-        throw new UnsupportedOperationException();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8));
+        return reader.lines().map(l -> l.split(",")).map(toCSVRecord());
     }
 
     @Override